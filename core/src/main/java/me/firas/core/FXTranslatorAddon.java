@@ -2,12 +2,10 @@ package me.firas.core;
 
 import me.firas.core.commands.TranslateCommand;
 import me.firas.core.listeners.ChatTranslateListener;
+import me.firas.core.listeners.ServerDisconnectListener;
 import me.firas.core.service.TranslationService;
 import net.labymod.api.addon.LabyAddon;
 import net.labymod.api.models.addon.annotation.AddonMain;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 
 
 @AddonMain
@@ -20,22 +18,16 @@ public class FXTranslatorAddon extends LabyAddon<TranslatorConfiguration> {
     this.registerSettingCategory();
 
     // Initialize translation service
+    // The service expires cached translations itself (guideline #1)
     this.translationService = new TranslationService(this);
 
     // Register chat listener
     this.registerListener(new ChatTranslateListener(this));
 
-    // Register command
-    this.registerCommand(new TranslateCommand(this));
-
-    // Schedule periodic cache cleanup to prevent memory issues (guideline #1)
-    ScheduledExecutorService cacheCleanupScheduler = Executors.newSingleThreadScheduledExecutor();
-    cacheCleanupScheduler.scheduleAtFixedRate(
-        () -> this.translationService.cleanExpiredCache(),
-        5, // Initial delay
-        5, // Period
-        TimeUnit.MINUTES
-    );
+    // Register command, its pending translations are cancelled when leaving a server
+    TranslateCommand translateCommand = new TranslateCommand(this);
+    this.registerCommand(translateCommand);
+    this.registerListener(new ServerDisconnectListener(translateCommand));
 
     this.logger().info("FX Translator Addon enabled!");
     this.logger().info("Using translation engine: " +
@@ -3,6 +3,7 @@ package me.firas.core;
 
 import net.labymod.api.addon.AddonConfig;
 import net.labymod.api.client.gui.screen.widget.widgets.input.ButtonWidget;
+import net.labymod.api.client.gui.screen.widget.widgets.input.SliderWidget.SliderSetting;
 import net.labymod.api.client.gui.screen.widget.widgets.input.SwitchWidget.SwitchSetting;
 import net.labymod.api.client.gui.screen.widget.widgets.input.TextFieldWidget.TextFieldSetting;
 import net.labymod.api.client.gui.screen.widget.widgets.input.dropdown.DropdownWidget.DropdownSetting;
@@ -32,6 +33,12 @@ public class TranslatorConfiguration extends AddonConfig {
   @DropdownSetting
   private final ConfigProperty<TranslatorEngine> translatorEngine = new ConfigProperty<>(TranslatorEngine.GOOGLE);
 
+  @SwitchSetting
+  private final ConfigProperty<Boolean> enableFailover = new ConfigProperty<>(true);
+
+  @TextFieldSetting
+  private final ConfigProperty<String> fallbackEngines = new ConfigProperty<>("GOOGLE, LIBRETRANSLATE, DEEPL, AZURE");
+
   @DropdownSetting
   private final ConfigProperty<Language> sourceLanguage = new ConfigProperty<>(Language.AUTO);
 
@@ -41,6 +48,12 @@ public class TranslatorConfiguration extends AddonConfig {
   @SwitchSetting
   private final ConfigProperty<Boolean> enableCache = new ConfigProperty<>(true);
 
+  @SliderSetting(min = 1, max = 64)
+  private final ConfigProperty<Integer> cacheMemoryBudget = new ConfigProperty<>(8);
+
+  @SwitchSetting
+  private final ConfigProperty<Boolean> persistentCache = new ConfigProperty<>(true);
+
   // DeepL Auth Settings Section
   @SettingSection("deepl")
   @TextFieldSetting
@@ -62,9 +75,32 @@ public class TranslatorConfiguration extends AddonConfig {
 
   // LibreTranslate Settings Section
   @SettingSection("libretranslate")
+  @TextFieldSetting
+  private final ConfigProperty<String> libreTranslateEndpoint = new ConfigProperty<>("https://libretranslate.com");
+
   @TextFieldSetting
   private final ConfigProperty<String> libreTranslateApiKey = new ConfigProperty<>("");
 
+  // Performance Settings Section
+  @SettingSection("performance")
+  @SliderSetting(min = 0, max = 250, steps = 5)
+  private final ConfigProperty<Integer> batchWindow = new ConfigProperty<>(20);
+
+  @SliderSetting(min = 1, max = 20)
+  private final ConfigProperty<Integer> maxRequestsPerSecond = new ConfigProperty<>(5);
+
+  @SwitchSetting
+  private final ConfigProperty<Boolean> enableHedging = new ConfigProperty<>(false);
+
+  @SliderSetting(min = 1, max = 100)
+  private final ConfigProperty<Integer> queueDepth = new ConfigProperty<>(20);
+
+  @DropdownSetting
+  private final ConfigProperty<SheddingPolicy> sheddingPolicy = new ConfigProperty<>(SheddingPolicy.DROP_OLDEST);
+
+  @SwitchSetting
+  private final ConfigProperty<Boolean> useVirtualThreads = new ConfigProperty<>(false);
+
   // Display Settings Section
   @SettingSection("display")
   @SwitchSetting
@@ -88,15 +124,26 @@ public class TranslatorConfiguration extends AddonConfig {
     this.buttonText.set("[T]");
     this.showButtonOnOwnMessages.set(false);
     this.translatorEngine.set(TranslatorEngine.GOOGLE);
+    this.enableFailover.set(true);
+    this.fallbackEngines.set("GOOGLE, LIBRETRANSLATE, DEEPL, AZURE");
     this.sourceLanguage.set(Language.AUTO);
     this.targetLanguage.set(Language.ENGLISH);
     this.enableCache.set(true);
+    this.cacheMemoryBudget.set(8);
+    this.persistentCache.set(true);
     this.deeplApiKey.set("");
     this.deeplUseFreeApi.set(true);
     this.azureApiKey.set("");
     this.azureRegion.set("eastus");
     this.azureEndpoint.set("");
+    this.libreTranslateEndpoint.set("https://libretranslate.com");
     this.libreTranslateApiKey.set("");
+    this.batchWindow.set(20);
+    this.maxRequestsPerSecond.set(5);
+    this.enableHedging.set(false);
+    this.queueDepth.set(20);
+    this.sheddingPolicy.set(SheddingPolicy.DROP_OLDEST);
+    this.useVirtualThreads.set(false);
     this.showLoadingMessage.set(true);
     this.showTranslatedPrefix.set(false);
     this.preserveMessageColors.set(true);
@@ -120,6 +167,14 @@ public class TranslatorConfiguration extends AddonConfig {
     return this.translatorEngine;
   }
 
+  public ConfigProperty<Boolean> enableFailover() {
+    return this.enableFailover;
+  }
+
+  public ConfigProperty<String> fallbackEngines() {
+    return this.fallbackEngines;
+  }
+
   public ConfigProperty<Language> sourceLanguage() {
     return this.sourceLanguage;
   }
@@ -132,6 +187,14 @@ public class TranslatorConfiguration extends AddonConfig {
     return this.enableCache;
   }
 
+  public ConfigProperty<Integer> cacheMemoryBudget() {
+    return this.cacheMemoryBudget;
+  }
+
+  public ConfigProperty<Boolean> persistentCache() {
+    return this.persistentCache;
+  }
+
   public ConfigProperty<String> deeplApiKey() {
     return this.deeplApiKey;
   }
@@ -152,10 +215,38 @@ public class TranslatorConfiguration extends AddonConfig {
     return this.azureEndpoint;
   }
 
+  public ConfigProperty<String> libreTranslateEndpoint() {
+    return this.libreTranslateEndpoint;
+  }
+
   public ConfigProperty<String> libreTranslateApiKey() {
     return this.libreTranslateApiKey;
   }
 
+  public ConfigProperty<Integer> batchWindow() {
+    return this.batchWindow;
+  }
+
+  public ConfigProperty<Integer> maxRequestsPerSecond() {
+    return this.maxRequestsPerSecond;
+  }
+
+  public ConfigProperty<Boolean> enableHedging() {
+    return this.enableHedging;
+  }
+
+  public ConfigProperty<Integer> queueDepth() {
+    return this.queueDepth;
+  }
+
+  public ConfigProperty<SheddingPolicy> sheddingPolicy() {
+    return this.sheddingPolicy;
+  }
+
+  public ConfigProperty<Boolean> useVirtualThreads() {
+    return this.useVirtualThreads;
+  }
+
   public ConfigProperty<Boolean> showLoadingMessage() {
     return this.showLoadingMessage;
   }
@@ -174,6 +265,12 @@ public class TranslatorConfiguration extends AddonConfig {
     DEEPL,
     AZURE
   }
+
+  public enum SheddingPolicy {
+    DROP_OLDEST,
+    REJECT_NEW,
+    EXPIRE_DEADLINE
+  }
   @SuppressWarnings("unused")
   public enum Language {
     AUTO("auto"),
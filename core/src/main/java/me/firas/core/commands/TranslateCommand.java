@@ -2,13 +2,19 @@ package me.firas.core.commands;
 
 import me.firas.core.FXTranslatorAddon;
 import me.firas.core.listeners.ChatTranslateListener;
+import me.firas.core.service.queue.TranslationRejectedException;
 import me.firas.core.util.ComponentUtil;
+import me.firas.core.util.FutureUtil;
 import net.labymod.api.Laby;
 import net.labymod.api.client.chat.command.Command;
 import net.labymod.api.client.component.Component;
 import net.labymod.api.client.component.format.NamedTextColor;
 import net.labymod.api.client.component.format.TextColor;
 
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Command handler for manual translation requests
  * Usage: /fxtranslate <message>
@@ -18,6 +24,8 @@ public class TranslateCommand extends Command {
 
   private final FXTranslatorAddon addon;
 
+  // Translations still running, cancelled when they are no longer needed
+  private final Set<CompletableFuture<?>> pendingTranslations = ConcurrentHashMap.newKeySet();
 
   public TranslateCommand(FXTranslatorAddon addon) {
     super("fxtranslate", "translate");
@@ -75,15 +83,30 @@ public class TranslateCommand extends Command {
     final Component originalComponent = Component.text(messageToTranslate);
 
     // Translate asynchronously
-    this.addon.getTranslationService().translate(messageToTranslate, sourceLang, targetLang)
+    CompletableFuture<String> translation = this.addon.getTranslationService()
+        .translate(messageToTranslate, sourceLang, targetLang);
+    this.pendingTranslations.add(translation);
+    translation.whenComplete((translatedText, throwable) -> this.pendingTranslations.remove(translation));
+    translation
         .thenAccept(translatedText -> {
           // Display translated message on main thread
           Laby.labyAPI().minecraft().executeOnRenderThread(() -> displayTranslationResult(translatedText, originalComponent));
         })
         .exceptionally(throwable -> {
+          if (FutureUtil.isCancellation(throwable)) {
+            // Cancelled on purpose, e.g. after leaving the server
+            return null;
+          }
           // Display error on main thread
           Laby.labyAPI().minecraft().executeOnRenderThread(() -> {
             ChatTranslateListener.skipNextButton();
+            if (isRejected(throwable)) {
+              // Shed by the queue during a flood, not an engine failure
+              this.displayMessage(
+                  Component.translatable("fxtranslator.command.busy", NamedTextColor.GOLD)
+              );
+              return;
+            }
             this.displayMessage(
                 Component.translatable("fxtranslator.command.failed", NamedTextColor.RED)
                     .append(Component.text(throwable.getMessage(), NamedTextColor.DARK_RED))
@@ -96,6 +119,28 @@ public class TranslateCommand extends Command {
     return true;
   }
 
+  /**
+   * Cancels every translation that is still running
+   * Their engine requests are aborted and nothing is shown for them
+   */
+  public void cancelPending() {
+    for (CompletableFuture<?> translation : this.pendingTranslations) {
+      translation.cancel(true);
+    }
+  }
+
+  /**
+   * Checks whether the translation was skipped because too many were pending
+   */
+  private static boolean isRejected(Throwable throwable) {
+    for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+      if (cause instanceof TranslationRejectedException) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * Displays the translation result based on user preferences
    *
@@ -0,0 +1,24 @@
+package me.firas.core.listeners;
+
+import me.firas.core.commands.TranslateCommand;
+import net.labymod.api.event.Subscribe;
+import net.labymod.api.event.client.network.server.ServerDisconnectEvent;
+
+/**
+ * Listener for leaving a server
+ * Cancels translations that were requested for the server's chat
+ */
+public class ServerDisconnectListener {
+
+  private final TranslateCommand translateCommand;
+
+  public ServerDisconnectListener(TranslateCommand translateCommand) {
+    this.translateCommand = translateCommand;
+  }
+
+  @Subscribe
+  public void onServerDisconnect(ServerDisconnectEvent event) {
+    // The chat they belong to is gone, so their requests only waste quota
+    this.translateCommand.cancelPending();
+  }
+}
\ No newline at end of file
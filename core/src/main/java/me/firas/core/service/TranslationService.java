@@ -1,25 +1,59 @@
 package me.firas.core.service;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import me.firas.core.FXTranslatorAddon;
 import me.firas.core.TranslatorConfiguration.TranslatorEngine;
-
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
+import me.firas.core.service.batch.RequestBatcher;
+import me.firas.core.service.cache.CacheKey;
+import me.firas.core.service.cache.CachedTranslation;
+import me.firas.core.service.cache.CoarseClock;
+import me.firas.core.service.cache.DiskTranslationStore;
+import me.firas.core.service.cache.NegativeCache;
+import me.firas.core.service.cache.TranslationCache;
+import me.firas.core.service.engine.AzureEngine;
+import me.firas.core.service.engine.DeepLEngine;
+import me.firas.core.service.engine.EngineCapabilities;
+import me.firas.core.service.engine.EngineClient;
+import me.firas.core.service.engine.EngineResponseException;
+import me.firas.core.service.engine.GoogleEngine;
+import me.firas.core.service.engine.LibreTranslateEngine;
+import me.firas.core.service.engine.TranslationEngine;
+import me.firas.core.service.queue.TranslationPriority;
+import me.firas.core.service.queue.TranslationQueue;
+import me.firas.core.service.queue.TranslationRejectedException;
+import me.firas.core.service.text.MessageNormalizer;
+import me.firas.core.service.text.MessageTemplate;
+import me.firas.core.service.text.NormalizedMessage;
+import me.firas.core.service.transport.CircuitBreaker;
+import me.firas.core.service.transport.ConcurrencyLimiter;
+import me.firas.core.service.transport.HttpTransport;
+import me.firas.core.service.transport.RateLimiter;
+import me.firas.core.service.transport.RequestHedger;
+import me.firas.core.util.FutureUtil;
+import net.labymod.api.Constants;
+import net.labymod.api.Laby;
+import net.labymod.api.client.network.ClientPacketListener;
+import net.labymod.api.client.network.NetworkPlayerInfo;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Service for handling translation requests
@@ -30,28 +64,129 @@ public class TranslationService {
 
   private final FXTranslatorAddon addon;
   private final ExecutorService executorService;
-  private final Map<String, CachedTranslation> translationCache;
-
-  // Cache expiration time (30 minutes)
+  private final ScheduledExecutorService scheduler;
+  private final HttpTransport transport;
+  private final RequestHedger hedger;
+  private final Map<TranslatorEngine, TranslationEngine> engines;
+  private final Map<TranslatorEngine, RequestBatcher<BatchKey, List<String>>> batchers;
+  private final Map<TranslatorEngine, CircuitBreaker> circuitBreakers;
+  private final TranslationQueue queue;
+  private final CoarseClock clock;
+  private final TranslationCache translationCache;
+  private final NegativeCache negativeCache;
+  private final DiskTranslationStore diskStore;
+  private final AtomicBoolean diskStoreLoading = new AtomicBoolean();
+  private final Map<CacheKey, Flight> inFlight;
+  private volatile FallbackOrder fallbackOrder = new FallbackOrder("", List.of());
+  private Set<String> playerNames = Set.of();
+  private long playerNamesReadAt;
+
+  // Cache expiration time (30 minutes), expired translations are still served
+  // for up to 6 hours while they are refreshed in the background
   private static final long CACHE_EXPIRATION_MS = 30 * 60 * 1000;
+  private static final long CACHE_MAX_STALE_MS = 6 * 60 * 60 * 1000;
+  private static final long BYTES_PER_MEGABYTE = 1024 * 1024;
+
+  // Time a stale translation is served as fresh after refreshing it failed
+  private static final long REVALIDATE_BACKOFF_MS = 60 * 1000;
+
+  // Negative cache limits, identity results are kept as long as translations
+  private static final int NEGATIVE_CACHE_MAX_ENTRIES = 1024;
+  private static final long NEGATIVE_CACHE_FAILURE_TTL_MS = 30 * 1000;
 
-  // Connection timeout settings
+  // Persistent cache limits (16 MB file, translations kept for 7 days)
+  private static final long DISK_CACHE_MAX_BYTES = 16 * BYTES_PER_MEGABYTE;
+  private static final long DISK_CACHE_RETENTION_MS = 7L * 24 * 60 * 60 * 1000;
+
+  // Connection timeout settings, request timeouts adapt per engine (see EngineClient)
   private static final int CONNECT_TIMEOUT_MS = 5000;
-  private static final int READ_TIMEOUT_MS = 10000;
 
-  // DeepL API endpoints
-  private static final String DEEPL_FREE_API = "https://api-free.deepl.com/v2/translate";
-  private static final String DEEPL_PRO_API = "https://api.deepl.com/v2/translate";
+  // Overall time a translation may take, including batching, throttling and failover
+  private static final long TRANSLATION_DEADLINE_MS = 15000;
+
+  // Translations sent to the engines at once, and the longest a queued one may wait
+  private static final int MAX_ACTIVE_TRANSLATIONS = 16;
+  private static final long QUEUE_MAX_WAIT_MS = 5000;
+
+  // Requests each engine may have open at once, whichever threads handle them
+  private static final int MAX_CONCURRENT_REQUESTS_PER_ENGINE = 8;
+
+  // The tab list is read at most once a second for masking player names
+  private static final long PLAYER_NAMES_REFRESH_MS = 1000;
+
+  // Hedges may be at most 5% of all requests
+  private static final double HEDGE_BUDGET_RATIO = 0.05;
 
   public TranslationService(FXTranslatorAddon addon) {
     this.addon = addon;
-    // Fixed thread pool size to prevent resource exhaustion (guideline #1)
-    this.executorService = Executors.newFixedThreadPool(3);
-    this.translationCache = new ConcurrentHashMap<>();
+    // Only runs response handling, network waits never occupy these threads
+    this.executorService = this.createExecutor();
+    // Single daemon thread for timed work such as batch windows
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "FXTranslator-Scheduler");
+      thread.setDaemon(true);
+      return thread;
+    });
+    // Shared transport so every engine reuses pooled connections
+    this.transport = new HttpTransport(this.executorService, CONNECT_TIMEOUT_MS);
+    this.hedger = new RequestHedger(this.scheduler, HEDGE_BUDGET_RATIO);
+    // Each engine has its own quota and health, so each is paced and tracked separately
+    this.engines = new EnumMap<>(TranslatorEngine.class);
+    this.batchers = new EnumMap<>(TranslatorEngine.class);
+    this.circuitBreakers = new EnumMap<>(TranslatorEngine.class);
+    for (TranslatorEngine type : TranslatorEngine.values()) {
+      TranslationEngine engine = this.createEngine(type, new EngineClient(this.transport,
+          new RateLimiter(this.scheduler, () -> this.addon.configuration().maxRequestsPerSecond().get()),
+          new ConcurrencyLimiter(MAX_CONCURRENT_REQUESTS_PER_ENGINE), this.hedger,
+          () -> this.addon.configuration().enableHedging().get()));
+      // Batches are sized by what the engine accepts in one request
+      EngineCapabilities capabilities = engine.capabilities();
+      CircuitBreaker circuitBreaker = new CircuitBreaker();
+      this.engines.put(type, engine);
+      this.batchers.put(type, new RequestBatcher<>(this.scheduler,
+          (key, texts) -> recordOutcome(circuitBreaker, engine.translate(texts, key.source(), key.targets())),
+          () -> this.addon.configuration().batchWindow().get(),
+          capabilities.maxBatchSize(), capabilities.maxCharacters(),
+          (key, text) -> text.length() * key.targets().size()));
+      this.circuitBreakers.put(type, circuitBreaker);
+    }
+    // Bounded so clicks during chat floods are shed instead of answered minutes later
+    this.queue = new TranslationQueue(MAX_ACTIVE_TRANSLATIONS,
+        () -> this.addon.configuration().queueDepth().get(),
+        () -> this.addon.configuration().sheddingPolicy().get(),
+        QUEUE_MAX_WAIT_MS);
+    // Bounded cache, the memory budget is configurable at runtime
+    this.clock = new CoarseClock();
+    this.translationCache = new TranslationCache(
+        () -> this.addon.configuration().cacheMemoryBudget().get() * BYTES_PER_MEGABYTE,
+        CACHE_EXPIRATION_MS, CACHE_MAX_STALE_MS, this.clock);
+    // Failures are kept briefly so a retry soon after still reaches the engine
+    this.negativeCache = new NegativeCache(NEGATIVE_CACHE_MAX_ENTRIES,
+        NEGATIVE_CACHE_FAILURE_TTL_MS, CACHE_EXPIRATION_MS, this.clock);
+    // Persistent cache is indexed in the background, lookups miss until it is ready
+    this.diskStore = new DiskTranslationStore(
+        Constants.Files.CONFIGS.resolve("fxtranslator").resolve("translations.cache"),
+        DISK_CACHE_MAX_BYTES, DISK_CACHE_RETENTION_MS);
+    if (this.addon.configuration().persistentCache().get()) {
+      this.loadDiskStore();
+    }
+
+    // Advance the cache clock and expire due entries every second
+    this.scheduler.scheduleAtFixedRate(() -> {
+      this.clock.tick();
+      this.cleanExpiredCache();
+    }, 1, 1, TimeUnit.SECONDS);
+    this.inFlight = new ConcurrentHashMap<>();
   }
 
   /**
    * Translates text asynchronously using the selected translation engine
+   * The request is sent without blocking, the returned future completes once
+   * the engine response has been received and parsed
+   * Identical requests that arrive while one is in flight share its engine call
+   * Engines that keep failing are skipped in favour of the configured fallback engines
+   * Numbers, coordinates and player names are masked, so recurring server messages are
+   * translated once and the values filled in locally
    *
    * @param text The text to translate
    * @param sourceLang Source language code
@@ -59,387 +194,721 @@ public class TranslationService {
    * @return CompletableFuture with translated text
    */
   public CompletableFuture<String> translate(String text, String sourceLang, String targetLang) {
-    return CompletableFuture.supplyAsync(() -> {
-      try {
-        // Validate input
-        if (text == null || text.trim().isEmpty()) {
-          throw new IllegalArgumentException("Text to translate cannot be empty");
-        }
+    return this.translate(text, sourceLang, targetLang, TranslationPriority.INTERACTIVE);
+  }
 
-        // Check cache first (guideline #1 - performance optimization)
-        String cacheKey = buildCacheKey(sourceLang, targetLang, text);
-        if (this.addon.configuration().enableCache().get()) {
-          CachedTranslation cached = this.translationCache.get(cacheKey);
-          if (cached != null && !cached.isExpired()) {
-            return cached.getTranslation();
-          }
-        }
+  /**
+   * Translates text asynchronously in the given priority lane
+   * Background translations only use capacity interactive ones leave free
+   *
+   * @param text The text to translate
+   * @param sourceLang Source language code
+   * @param targetLang Target language code
+   * @param priority Lane the translation waits in while the engines are busy
+   * @return CompletableFuture with translated text
+   * @see #translate(String, String, String)
+   */
+  public CompletableFuture<String> translate(String text, String sourceLang, String targetLang,
+      TranslationPriority priority) {
+    // Server messages that differ only in names and numbers share one translated template
+    MessageTemplate template = text == null ? null : MessageTemplate.of(text, this.onlinePlayerNames());
+    if (template == null) {
+      return this.translateText(text, sourceLang, targetLang, priority);
+    }
 
-        // Select translation engine
-        TranslatorEngine engine = this.addon.configuration().translatorEngine().get();
-        String translatedText = switch (engine) {
-          case GOOGLE -> translateWithGoogle(text, sourceLang, targetLang);
-          case DEEPL -> translateWithDeepL(text, sourceLang, targetLang);
-          case AZURE -> translateWithAzure(text, sourceLang, targetLang);
-          case LIBRETRANSLATE -> translateWithLibreTranslate(text, sourceLang, targetLang);
-          default -> throw new RuntimeException("Unknown translation engine: " + engine);
-        };
-
-        // Cache the result if enabled
-        if (this.addon.configuration().enableCache().get()) {
-          this.translationCache.put(cacheKey, new CachedTranslation(translatedText));
+    // Cancelling the result also cancels the fallback translation once it has started
+    CompletableFuture<String> translatedTemplate = this.translateText(template.text(), sourceLang, targetLang,
+        priority);
+    return FutureUtil.composeCancellable(translatedTemplate, translation -> {
+      String filled = template.fill(translation);
+      // The engine dropped or repeated a placeholder, translate the message as it is
+      return filled != null
+          ? CompletableFuture.completedFuture(filled)
+          : this.translateText(text, sourceLang, targetLang, priority);
+    });
+  }
+
+  /**
+   * Translates one text through the caches, the single flight and the engine chain
+   */
+  private CompletableFuture<String> translateText(String text, String sourceLang, String targetLang,
+      TranslationPriority priority) {
+    CompletableFuture<String> translation;
+    try {
+      // Validate input
+      if (text == null || text.trim().isEmpty()) {
+        throw new IllegalArgumentException("Text to translate cannot be empty");
+      }
+
+      // Numbers, coordinates and emoji have nothing to translate
+      if (text.codePoints().noneMatch(Character::isLetter)) {
+        return CompletableFuture.completedFuture(text);
+      }
+
+      // Near-identical messages share a cache entry, the original shape is put back on the result
+      NormalizedMessage message = MessageNormalizer.normalize(text);
+      String normalizedText = message.text();
+
+      // Check cache first (guideline #1 - performance optimization)
+      List<TranslatorEngine> engines = this.engineChain(sourceLang);
+      TranslatorEngine engine = this.selectEngine(engines);
+      CacheKey cacheKey = CacheKey.of(engine, sourceLang, targetLang, normalizedText);
+      translation = FutureUtil.composeCancellable(this.lookupCache(cacheKey), cached -> {
+        if (cached == null) {
+          return this.translateUncached(text, message, engines, engine, sourceLang, targetLang, priority, cacheKey);
+        }
+        if (cached.stale()) {
+          this.revalidate(engine, normalizedText, sourceLang, targetLang, cacheKey);
         }
+        return CompletableFuture.completedFuture(message.restore(cached.text()));
+      });
+    } catch (Exception e) {
+      translation = CompletableFuture.failedFuture(e);
+    }
 
-        return translatedText;
-      } catch (Exception e) {
-        throw new RuntimeException("Translation error: " + e.getMessage(), e);
+    return withTranslationError(translation);
+  }
+
+  /**
+   * Answers a cache miss from the negative cache, an identical request in flight or a new flight
+   */
+  private CompletableFuture<String> translateUncached(String text, NormalizedMessage message,
+      List<TranslatorEngine> engines, TranslatorEngine engine, String sourceLang, String targetLang,
+      TranslationPriority priority, CacheKey cacheKey) {
+    String normalizedText = message.text();
+
+    // Requests that just failed or came back unchanged are answered without the engine
+    NegativeCache.Entry negative = this.lookupNegativeCache(cacheKey);
+    if (negative != null) {
+      if (negative.identity()) {
+        return CompletableFuture.completedFuture(text);
       }
-    }, this.executorService);
+      throw new RuntimeException(negative.failure());
+    }
+
+    // Join an identical request that is already in flight
+    Flight flight = this.inFlight.get(cacheKey);
+    while (flight == null || !flight.join()) {
+      if (flight != null) {
+        // Every caller of this flight cancelled, it is being torn down
+        this.inFlight.remove(cacheKey, flight);
+      }
+      Flight started = new Flight();
+      flight = this.inFlight.putIfAbsent(cacheKey, started);
+      if (flight == null) {
+        flight = started;
+        this.startFlight(engines.subList(engines.indexOf(engine), engines.size()),
+            normalizedText, sourceLang, targetLang, priority, cacheKey, started);
+        break;
+      }
+    }
+
+    // The player is waiting now, so a prefetch of the same text must not wait behind background work
+    CompletableFuture<String> queued = flight.queued;
+    if (priority == TranslationPriority.INTERACTIVE && queued != null) {
+      this.queue.promote(queued);
+    }
+
+    // Each caller gets its own view so one caller cannot complete it for the others,
+    // the engine call is only cancelled once every caller has cancelled its view
+    CompletableFuture<String> view = flight.result.copy();
+    Flight joined = flight;
+    view.whenComplete((translatedText, throwable) -> {
+      if (view.isCancelled()) {
+        joined.leave(cacheKey, this.inFlight);
+      }
+    });
+    return FutureUtil.propagateCancel(view.thenApply(message::restore), view);
   }
 
   /**
-   * Builds a cache key for the translation
-   * Guideline-compliant: Caches objects instead of creating new ones every tick
+   * Sends the request along the engine chain and completes the shared in-flight future
+   * The result is cached before the flight is removed, so later callers hit the cache
    */
-  private String buildCacheKey(String sourceLang, String targetLang, String text) {
-    return sourceLang + ":" + targetLang + ":" + text.hashCode();
+  private void startFlight(List<TranslatorEngine> engines, String text, String sourceLang, String targetLang,
+      TranslationPriority priority, CacheKey cacheKey, Flight flight) {
+    flight.queued = this.queue.submit(priority,
+        () -> this.translateWithFailover(engines, text, sourceLang, targetLang));
+
+    withDeadline(flight.queued).whenComplete((translatedText, throwable) -> {
+      this.inFlight.remove(cacheKey, flight);
+
+      if (throwable != null) {
+        flight.result.completeExceptionally(throwable);
+      } else {
+        flight.result.complete(translatedText);
+      }
+    });
   }
 
   /**
-   * Google Translate (Unofficial API)
-   * Uses free Google Translate API endpoint
+   * Reads the tab list, so names in server messages can be masked
+   * The names are kept for a second, a burst of messages does not copy the tab list for each one
    *
-   * @param text Text to translate
-   * @param sourceLang Source language code
-   * @param targetLang Target language code
-   * @return Translated text
-   * @throws Exception If translation fails
-   */
-  private String translateWithGoogle(String text, String sourceLang, String targetLang) throws Exception {
-    String source = sourceLang.equals("auto") ? "auto" : sourceLang;
-    String encodedText = URLEncoder.encode(text, StandardCharsets.UTF_8);
-    String urlString = "https://translate.googleapis.com/translate_a/single?client=gtx&sl="
-        + source + "&tl=" + targetLang + "&dt=t&q=" + encodedText;
-
-    URL url = new URL(urlString);
-    HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-    connection.setRequestMethod("GET");
-    connection.setRequestProperty("User-Agent", "Mozilla/5.0");
-    connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
-    connection.setReadTimeout(READ_TIMEOUT_MS);
-
-    int responseCode = connection.getResponseCode();
-    if (responseCode != HttpURLConnection.HTTP_OK) {
-      throw new RuntimeException("Google Translate API error: HTTP " + responseCode);
-    }
-
-    try (BufferedReader reader = new BufferedReader(
-        new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
-
-      StringBuilder response = new StringBuilder();
-      String line;
-      while ((line = reader.readLine()) != null) {
-        response.append(line);
-      }
+   * @return Names of the players on the current server, empty if not connected
+   */
+  private synchronized Set<String> onlinePlayerNames() {
+    long now = this.clock.millis();
+    if (now - this.playerNamesReadAt < PLAYER_NAMES_REFRESH_MS) {
+      return this.playerNames;
+    }
+    this.playerNamesReadAt = now;
 
-      // Parse Google Translate response
-      JsonArray jsonResponse = JsonParser.parseString(response.toString()).getAsJsonArray();
-      JsonArray translations = jsonResponse.get(0).getAsJsonArray();
+    ClientPacketListener packetListener = Laby.labyAPI().minecraft().getClientPacketListener();
+    if (packetListener == null) {
+      this.playerNames = Set.of();
+      return this.playerNames;
+    }
 
-      StringBuilder translatedText = new StringBuilder();
-      for (int i = 0; i < translations.size(); i++) {
-        JsonArray translation = translations.get(i).getAsJsonArray();
-        translatedText.append(translation.get(0).getAsString());
-      }
+    Set<String> names = new HashSet<>();
+    for (NetworkPlayerInfo playerInfo : packetListener.getNetworkPlayerInfos()) {
+      names.add(playerInfo.profile().getUsername());
+    }
+    this.playerNames = names;
+    return names;
+  }
 
-      return translatedText.toString();
+  /**
+   * Refreshes a stale cache entry in the background
+   * Goes through the single flight, so repeated hits on the same entry start one request,
+   * the new translation replaces the entry once it arrives
+   * A text that now comes back unchanged drops the entry, and a failed refresh serves the
+   * entry as fresh for a while, so later hits do not send the same request again right away
+   */
+  private void revalidate(TranslatorEngine engine, String text, String sourceLang, String targetLang,
+      CacheKey cacheKey) {
+    Flight refresh = new Flight();
+    if (this.inFlight.putIfAbsent(cacheKey, refresh) != null) {
+      return;
     }
+
+    List<TranslatorEngine> engines = this.engineChain(sourceLang);
+    int index = engines.indexOf(engine);
+    this.startFlight(index < 0 ? List.of(engine) : engines.subList(index, engines.size()),
+        text, sourceLang, targetLang, TranslationPriority.BACKGROUND, cacheKey, refresh);
+
+    refresh.result.whenComplete((translatedText, throwable) -> {
+      if (throwable != null) {
+        if (!FutureUtil.isCancellation(throwable)) {
+          this.translationCache.deferRefresh(cacheKey, REVALIDATE_BACKOFF_MS);
+        }
+      } else if (translatedText.equals(text)) {
+        this.translationCache.invalidate(cacheKey);
+      } else {
+        // A fallback engine caches under its own key, the entry that was hit is replaced too
+        this.translationCache.put(cacheKey, translatedText);
+      }
+    });
   }
 
   /**
-   * DeepL Translate (Official API)
-   * Uses DeepL API with authentication key
+   * Tries the engines in order until one returns a translation
+   * Engines whose circuit breaker is open are skipped without sending anything,
+   * their batch sender records every engine call so failing engines are taken out of the chain
+   * Cancelling the returned future cancels the request to the engine currently asked
    *
-   * @param text Text to translate
-   * @param sourceLang Source language code
-   * @param targetLang Target language code
-   * @return Translated text
-   * @throws Exception If translation fails
-   */
-  private String translateWithDeepL(String text, String sourceLang, String targetLang) throws Exception {
-    // Get API key from configuration
-    String apiKey = this.addon.configuration().deeplApiKey().get();
-    if (apiKey == null || apiKey.trim().isEmpty()) {
-      throw new RuntimeException("DeepL API key is not configured. Please add your API key in settings.");
-    }
-
-    // Determine API endpoint (free or pro)
-    boolean useFreeApi = this.addon.configuration().deeplUseFreeApi().get();
-    String apiEndpoint = useFreeApi ? DEEPL_FREE_API : DEEPL_PRO_API;
-
-    // Convert language codes to DeepL format
-    String deeplSourceLang = convertToDeeplLangCode(sourceLang);
-    String deeplTargetLang = convertToDeeplLangCode(targetLang);
-
-    // Build request body
-    JsonObject requestBody = new JsonObject();
-    JsonArray textArray = new JsonArray();
-    textArray.add(text);
-    requestBody.add("text", textArray);
-    requestBody.addProperty("target_lang", deeplTargetLang.toUpperCase());
-
-    // Only add source_lang if not auto-detect
-    if (!deeplSourceLang.equals("auto")) {
-      requestBody.addProperty("source_lang", deeplSourceLang.toUpperCase());
-    }
-
-    // Make API request
-    URL url = new URL(apiEndpoint);
-    HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-    connection.setRequestMethod("POST");
-    connection.setRequestProperty("Authorization", "DeepL-Auth-Key " + apiKey);
-    connection.setRequestProperty("Content-Type", "application/json");
-    connection.setDoOutput(true);
-    connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
-    connection.setReadTimeout(READ_TIMEOUT_MS);
-
-    // Send request
-    try (OutputStream os = connection.getOutputStream()) {
-      byte[] input = requestBody.toString().getBytes(StandardCharsets.UTF_8);
-      os.write(input, 0, input.length);
-    }
-
-    int responseCode = connection.getResponseCode();
-    if (responseCode != HttpURLConnection.HTTP_OK) {
-      // Read error message
-      try (BufferedReader errorReader = new BufferedReader(
-          new InputStreamReader(connection.getErrorStream(), StandardCharsets.UTF_8))) {
-        StringBuilder errorResponse = new StringBuilder();
-        String line;
-        while ((line = errorReader.readLine()) != null) {
-          errorResponse.append(line);
+   * @param engines Engines to try, in order
+   * @return Future completing with the first successful translation
+   */
+  private CompletableFuture<String> translateWithFailover(List<TranslatorEngine> engines,
+      String text, String sourceLang, String targetLang) {
+    CompletableFuture<String> result = new CompletableFuture<>();
+    this.translateWithFailover(engines, 0, text, sourceLang, targetLang, null, true, result);
+    return result;
+  }
+
+  /**
+   * @param index Position of the next engine to try
+   * @param firstError Error of the first engine that failed, reported if all of them fail
+   * @param textRejected Whether every engine so far was reached and refused the text itself
+   * @param result Completed with the first successful translation
+   */
+  private void translateWithFailover(List<TranslatorEngine> engines, int index, String text, String sourceLang,
+      String targetLang, Throwable firstError, boolean textRejected, CompletableFuture<String> result) {
+    for (int i = index; i < engines.size(); i++) {
+      TranslatorEngine engine = engines.get(i);
+      CircuitBreaker circuitBreaker = this.circuitBreakers.get(engine);
+      if (!circuitBreaker.tryAcquire()) {
+        textRejected = false;
+        continue;
+      }
+
+      CompletableFuture<List<String>> translation;
+      try {
+        translation = this.translateWith(engine, text, sourceLang, List.of(targetLang));
+      } catch (Exception e) {
+        // Rejected before sending (e.g. missing API key), says nothing about the engine's health
+        circuitBreaker.release();
+        firstError = firstError != null ? firstError : e;
+        textRejected = false;
+        continue;
+      }
+
+      int next = i + 1;
+      Throwable error = firstError;
+      boolean rejected = textRejected;
+      FutureUtil.propagateCancel(result, translation);
+      translation.whenComplete((translations, throwable) -> {
+        if (result.isDone() || FutureUtil.isCancellation(throwable)) {
+          // Cancelled, the caller no longer needs the translation and nothing is cached.
+          // A cancelled trial says nothing about the engine, the next request may try again
+          circuitBreaker.release();
+          result.cancel(true);
+          return;
+        }
+        if (throwable == null) {
+          // Cached under the engine that answered, so fallback results are reused while it stands in
+          CacheKey cacheKey = CacheKey.of(engine, sourceLang, targetLang, text);
+          String translatedText = translations.get(0);
+          if (translatedText.equals(text)) {
+            // Unchanged texts are remembered as a marker instead of taking space in the cache
+            this.storeIdentity(cacheKey);
+          } else {
+            this.storeCache(cacheKey, translatedText);
+          }
+          result.complete(translatedText);
+          return;
         }
-        throw new RuntimeException("DeepL API error (HTTP " + responseCode + "): " + errorResponse.toString());
+
+        this.translateWithFailover(engines, next, text, sourceLang, targetLang,
+            error != null ? error : throwable, rejected && isTextRejection(throwable), result);
+      });
+      return;
+    }
+
+    if (firstError != null) {
+      if (textRejected) {
+        // Every engine refused the text, asking again right away would fail the same way
+        this.storeFailure(CacheKey.of(engines.get(0), sourceLang, targetLang, text), firstError);
       }
+      result.completeExceptionally(firstError);
+      return;
     }
+    result.completeExceptionally(new RuntimeException(
+        engines.get(0) + " is temporarily unavailable after repeated failures"));
+  }
+
+  /**
+   * Records the outcome of one engine call in the engine's circuit breaker
+   * Recorded per call rather than per text, so one failed batch counts as one failure
+   * An engine that refused the text still answered, that counts as a success
+   */
+  private static <T> CompletableFuture<T> recordOutcome(CircuitBreaker circuitBreaker,
+      CompletableFuture<T> response) {
+    response.whenComplete((result, throwable) -> {
+      if (throwable == null || isTextRejection(throwable)) {
+        circuitBreaker.onSuccess();
+      } else if (!FutureUtil.isCancellation(throwable)) {
+        circuitBreaker.onFailure();
+      }
+    });
+    return response;
+  }
 
-    // Read response
-    try (BufferedReader reader = new BufferedReader(
-        new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
+  /**
+   * Fails the translation if it has not completed within the overall deadline
+   * Work still running afterwards completes in the background and is cached
+   */
+  private static <T> CompletableFuture<T> withDeadline(CompletableFuture<T> translation) {
+    return FutureUtil.propagateCancel(translation.orTimeout(TRANSLATION_DEADLINE_MS, TimeUnit.MILLISECONDS)
+        .exceptionallyCompose(throwable -> {
+          Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+              ? throwable.getCause()
+              : throwable;
+          if (cause instanceof TimeoutException) {
+            return CompletableFuture.failedFuture(new RuntimeException(
+                "No response within " + TRANSLATION_DEADLINE_MS / 1000 + " seconds", cause));
+          }
+          return CompletableFuture.failedFuture(cause);
+        }), translation);
+  }
 
-      StringBuilder response = new StringBuilder();
-      String line;
-      while ((line = reader.readLine()) != null) {
-        response.append(line);
+  /**
+   * Creates the executor for response handling and persistent cache work
+   * Virtual threads need Java 21, older runtimes keep the fixed platform pool
+   */
+  private ExecutorService createExecutor() {
+    if (this.addon.configuration().useVirtualThreads().get()) {
+      try {
+        // Looked up at runtime, the addon is also built for runtimes without virtual threads
+        return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+      } catch (ReflectiveOperationException e) {
+        this.addon.logger().warn("Virtual threads are not available on this Java version, using the thread pool");
       }
+    }
+    // Fixed thread pool size to prevent resource exhaustion (guideline #1)
+    return Executors.newFixedThreadPool(3);
+  }
+
+  private TranslationEngine createEngine(TranslatorEngine type, EngineClient client) {
+    return switch (type) {
+      case GOOGLE -> new GoogleEngine(client);
+      case DEEPL -> new DeepLEngine(client, this.addon.configuration());
+      case AZURE -> new AzureEngine(client, this.addon.configuration());
+      case LIBRETRANSLATE -> new LibreTranslateEngine(client, this.addon.configuration());
+    };
+  }
+
+  /**
+   * Queues a text for the engine's next batch
+   * Fails fast before queueing if the engine is missing required settings
+   *
+   * @return Future completing with one translation per target language
+   */
+  private CompletableFuture<List<String>> translateWith(TranslatorEngine engine, String text, String sourceLang,
+      List<String> targetLangs) {
+    String error = this.engines.get(engine).configurationError();
+    if (error != null) {
+      throw new RuntimeException(error);
+    }
+    return this.batchers.get(engine).submit(new BatchKey(sourceLang, List.copyOf(targetLangs)), text);
+  }
 
-      // Parse DeepL response
-      JsonObject jsonResponse = JsonParser.parseString(response.toString()).getAsJsonObject();
-      JsonArray translations = jsonResponse.getAsJsonArray("translations");
+  /**
+   * Builds the engines to try for a request, the selected engine first
+   * With failover enabled the configured fallback engines follow, skipping
+   * engines that cannot be used without credentials that are not set
+   * When the source language is detected, fallbacks that detect it for free come first
+   */
+  private List<TranslatorEngine> engineChain(String sourceLang) {
+    TranslatorEngine primary = this.addon.configuration().translatorEngine().get();
+    if (!this.addon.configuration().enableFailover().get()) {
+      return List.of(primary);
+    }
 
-      if (translations.size() == 0) {
-        throw new RuntimeException("DeepL API returned empty translation");
+    List<TranslatorEngine> engines = new ArrayList<>();
+    engines.add(primary);
+    List<TranslatorEngine> paidDetection = new ArrayList<>();
+    for (TranslatorEngine engine : this.fallbackEngines()) {
+      if (engines.contains(engine) || paidDetection.contains(engine)
+          || this.engines.get(engine).configurationError() != null) {
+        continue;
+      }
+      if (sourceLang.equals("auto") && !this.engines.get(engine).capabilities().freeAutoDetect()) {
+        paidDetection.add(engine);
+      } else {
+        engines.add(engine);
       }
+    }
+    engines.addAll(paidDetection);
+    return engines;
+  }
 
-      return translations.get(0).getAsJsonObject().get("text").getAsString();
+  /**
+   * @return The first engine of the chain whose circuit breaker is closed, or the selected engine if none is
+   */
+  private TranslatorEngine selectEngine(List<TranslatorEngine> engines) {
+    for (TranslatorEngine engine : engines) {
+      if (!this.circuitBreakers.get(engine).isOpen()) {
+        return engine;
+      }
     }
+    return engines.get(0);
   }
 
   /**
-   * Azure Cognitive Services Translator (Official API)
-   * Uses Microsoft Azure Translator API with authentication key
+   * Parses the fallback engine setting, the result is kept until the setting changes
+   */
+  private List<TranslatorEngine> fallbackEngines() {
+    String setting = this.addon.configuration().fallbackEngines().get();
+    FallbackOrder order = this.fallbackOrder;
+    if (order.setting().equals(setting)) {
+      return order.engines();
+    }
+
+    List<TranslatorEngine> engines = new ArrayList<>();
+    for (String name : setting.split("[,;\\s]+")) {
+      for (TranslatorEngine engine : TranslatorEngine.values()) {
+        if (engine.name().equalsIgnoreCase(name.trim())) {
+          engines.add(engine);
+        }
+      }
+    }
+    this.fallbackOrder = new FallbackOrder(setting, List.copyOf(engines));
+    return engines;
+  }
+
+  /**
+   * Translates text into several target languages at once
+   * Engines with multi-target support serve all missing targets from a single
+   * request element, other engines translate each target separately
    *
-   * @param text Text to translate
+   * @param text The text to translate
    * @param sourceLang Source language code
-   * @param targetLang Target language code
-   * @return Translated text
-   * @throws Exception If translation fails
-   */
-  private String translateWithAzure(String text, String sourceLang, String targetLang) throws Exception {
-    // Get API credentials from configuration
-    String apiKey = this.addon.configuration().azureApiKey().get();
-    if (apiKey == null || apiKey.trim().isEmpty()) {
-      throw new RuntimeException("Azure API key is not configured. Please add your API key in settings.");
-    }
-
-    String region = this.addon.configuration().azureRegion().get();
-    String endpoint = this.addon.configuration().azureEndpoint().get();
-
-    // Build API URL
-    String apiVersion = "3.0";
-    StringBuilder urlBuilder = new StringBuilder(endpoint);
-    urlBuilder.append("/translate?api-version=").append(apiVersion);
-    urlBuilder.append("&to=").append(targetLang);
-
-    // Add source language if not auto-detect
-    if (!sourceLang.equals("auto")) {
-      urlBuilder.append("&from=").append(sourceLang);
-    }
-
-    // Build request body
-    JsonArray requestBody = new JsonArray();
-    JsonObject textObject = new JsonObject();
-    textObject.addProperty("Text", text);
-    requestBody.add(textObject);
-
-    // Make API request
-    URL url = new URL(urlBuilder.toString());
-    HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-    connection.setRequestMethod("POST");
-    connection.setRequestProperty("Ocp-Apim-Subscription-Key", apiKey);
-    connection.setRequestProperty("Ocp-Apim-Subscription-Region", region);
-    connection.setRequestProperty("Content-Type", "application/json");
-    connection.setRequestProperty("X-ClientTraceId", UUID.randomUUID().toString());
-    connection.setDoOutput(true);
-    connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
-    connection.setReadTimeout(READ_TIMEOUT_MS);
-
-    // Send request
-    try (OutputStream os = connection.getOutputStream()) {
-      byte[] input = requestBody.toString().getBytes(StandardCharsets.UTF_8);
-      os.write(input, 0, input.length);
-    }
-
-    int responseCode = connection.getResponseCode();
-    if (responseCode != HttpURLConnection.HTTP_OK) {
-      // Read error message
-      try (BufferedReader errorReader = new BufferedReader(
-          new InputStreamReader(connection.getErrorStream(), StandardCharsets.UTF_8))) {
-        StringBuilder errorResponse = new StringBuilder();
-        String line;
-        while ((line = errorReader.readLine()) != null) {
-          errorResponse.append(line);
+   * @param targetLangs Target language codes
+   * @return CompletableFuture with the translations keyed by target language, in the given order
+   */
+  public CompletableFuture<Map<String, String>> translate(String text, String sourceLang, List<String> targetLangs) {
+    return this.translate(text, sourceLang, targetLangs, TranslationPriority.INTERACTIVE);
+  }
+
+  /**
+   * Translates text into several target languages at once in the given priority lane
+   *
+   * @param text The text to translate
+   * @param sourceLang Source language code
+   * @param targetLangs Target language codes
+   * @param priority Lane the translation waits in while the engines are busy
+   * @return CompletableFuture with the translations keyed by target language, in the given order
+   * @see #translate(String, String, List)
+   */
+  public CompletableFuture<Map<String, String>> translate(String text, String sourceLang, List<String> targetLangs,
+      TranslationPriority priority) {
+    TranslatorEngine engine = this.selectEngine(this.engineChain(sourceLang));
+    boolean multiTarget = this.engines.get(engine).capabilities().multiTarget();
+
+    if (multiTarget && text != null && !text.trim().isEmpty()) {
+      NormalizedMessage message = MessageNormalizer.normalize(text);
+      List<CompletableFuture<CachedTranslation>> lookups = new ArrayList<>();
+      for (String targetLang : targetLangs) {
+        lookups.add(this.lookupCache(CacheKey.of(engine, sourceLang, targetLang, message.text())));
+      }
+      return FutureUtil.composeCancellable(CompletableFuture.allOf(lookups.toArray(new CompletableFuture<?>[0])),
+          ignored -> this.translateTargets(text, message, engine, sourceLang, targetLangs,
+              lookups.stream().map(CompletableFuture::join).toList(), priority));
+    }
+
+    Map<String, CompletableFuture<String>> translations = new LinkedHashMap<>();
+    for (String targetLang : targetLangs) {
+      translations.put(targetLang, this.translate(text, sourceLang, targetLang, priority));
+    }
+    return combine(translations);
+  }
+
+  /**
+   * Serves cached targets directly and requests the rest together from the multi-target engine
+   */
+  private CompletableFuture<Map<String, String>> translateTargets(String text, NormalizedMessage message,
+      TranslatorEngine engine, String sourceLang, List<String> targetLangs, List<CachedTranslation> cachedTargets,
+      TranslationPriority priority) {
+    Map<String, CompletableFuture<String>> translations = new LinkedHashMap<>();
+    CircuitBreaker circuitBreaker = this.circuitBreakers.get(engine);
+    String normalizedText = message.text();
+
+    List<String> missingTargets = new ArrayList<>();
+    for (int i = 0; i < targetLangs.size(); i++) {
+      String targetLang = targetLangs.get(i);
+      CachedTranslation cached = cachedTargets.get(i);
+      if (cached != null) {
+        if (cached.stale()) {
+          this.revalidate(engine, normalizedText, sourceLang, targetLang,
+              CacheKey.of(engine, sourceLang, targetLang, normalizedText));
         }
-        throw new RuntimeException("Azure Translator API error (HTTP " + responseCode + "): " + errorResponse.toString());
+        translations.put(targetLang, CompletableFuture.completedFuture(message.restore(cached.text())));
+      } else {
+        missingTargets.add(targetLang);
       }
     }
 
-    // Read response
-    try (BufferedReader reader = new BufferedReader(
-        new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
+    // The breaker is only asked once a request is needed, a half-open trial must lead to a request
+    if (!missingTargets.isEmpty() && circuitBreaker.tryAcquire()) {
+      // The batch sender records the outcome, a request that never reached the engine only gives up its trial
+      CompletableFuture<List<String>> batch = withDeadline(this.queue.submit(priority, () -> {
+        try {
+          return this.translateWith(engine, normalizedText, sourceLang, missingTargets);
+        } catch (RuntimeException e) {
+          circuitBreaker.release();
+          throw e;
+        }
+      }));
+      batch.whenComplete((results, throwable) -> {
+        if (FutureUtil.isCancellation(throwable) || isRejection(throwable)) {
+          circuitBreaker.release();
+        }
+      });
+
+      for (int i = 0; i < missingTargets.size(); i++) {
+        String targetLang = missingTargets.get(i);
+        int index = i;
+        CompletableFuture<String> batched = withTranslationError(FutureUtil.propagateCancel(batch.thenApply(results -> {
+          String translatedText = results.get(index);
+          CacheKey cacheKey = CacheKey.of(engine, sourceLang, targetLang, normalizedText);
+          if (translatedText.equals(normalizedText)) {
+            this.storeIdentity(cacheKey);
+          } else {
+            this.storeCache(cacheKey, translatedText);
+          }
+          return message.restore(translatedText);
+        }), batch));
 
-      StringBuilder response = new StringBuilder();
-      String line;
-      while ((line = reader.readLine()) != null) {
-        response.append(line);
+        // A failed request falls back to the per-target path and its failover, a shed one is not retried
+        translations.put(targetLang, FutureUtil.recoverCancellable(batched, throwable -> isRejection(throwable)
+            ? CompletableFuture.failedFuture(throwable)
+            : this.translate(text, sourceLang, targetLang, priority)));
       }
+    } else {
+      // Engine is skipped, each missing target goes through failover on its own
+      for (String targetLang : missingTargets) {
+        translations.put(targetLang, this.translate(text, sourceLang, targetLang, priority));
+      }
+    }
+    return combine(translations);
+  }
 
-      // Parse Azure response
-      JsonArray jsonResponse = JsonParser.parseString(response.toString()).getAsJsonArray();
+  /**
+   * Keeps the caller's target order in the result, cancelling it cancels every target
+   */
+  private static CompletableFuture<Map<String, String>> combine(Map<String, CompletableFuture<String>> translations) {
+    CompletableFuture<?>[] requests = translations.values().toArray(new CompletableFuture<?>[0]);
+    return FutureUtil.propagateCancel(CompletableFuture.allOf(requests)
+        .thenApply(ignored -> {
+          Map<String, String> results = new LinkedHashMap<>();
+          translations.forEach((targetLang, translation) -> results.put(targetLang, translation.join()));
+          return results;
+        }), requests);
+  }
 
-      if (jsonResponse.size() == 0) {
-        throw new RuntimeException("Azure Translator API returned empty translation");
+  /**
+   * Wraps failures of a translation stage into the error reported to callers
+   */
+  private static <T> CompletableFuture<T> withTranslationError(CompletableFuture<T> translation) {
+    return FutureUtil.propagateCancel(translation.handle((result, throwable) -> {
+      if (throwable != null) {
+        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+            ? throwable.getCause()
+            : throwable;
+        throw new RuntimeException("Translation error: " + cause.getMessage(), cause);
       }
+      return result;
+    }), translation);
+  }
 
-      JsonObject firstResult = jsonResponse.get(0).getAsJsonObject();
-      JsonArray translations = firstResult.getAsJsonArray("translations");
+  /**
+   * Looks up a translation in memory, then on disk
+   * Memory hits complete right away, the disk is read on the executor so the calling thread,
+   * usually the game thread, never waits for file IO. Disk hits are promoted into the memory cache
+   *
+   * @return Future with the cached translation, or null on a miss or if caching is disabled
+   */
+  private CompletableFuture<CachedTranslation> lookupCache(CacheKey cacheKey) {
+    if (!this.addon.configuration().enableCache().get()) {
+      return CompletableFuture.completedFuture(null);
+    }
 
-      if (translations.size() == 0) {
-        throw new RuntimeException("Azure Translator API returned no translations");
+    CachedTranslation cached = this.translationCache.get(cacheKey);
+    if (cached != null || !this.addon.configuration().persistentCache().get()) {
+      return CompletableFuture.completedFuture(cached);
+    }
+
+    // The disk may still hold a translation the negative cache has since replaced
+    this.loadDiskStore();
+    if (!this.diskStore.isLoaded() || this.negativeCache.get(cacheKey) != null) {
+      return CompletableFuture.completedFuture(null);
+    }
+    return CompletableFuture.supplyAsync(() -> {
+      DiskTranslationStore.StoredTranslation stored = this.diskStore.get(cacheKey);
+      if (stored == null) {
+        return null;
       }
+      // Promoted with its original age, old translations are served stale and refreshed
+      this.translationCache.put(cacheKey, stored.text(), stored.writeTime());
+      return new CachedTranslation(stored.text(), this.clock.millis() - stored.writeTime() > CACHE_EXPIRATION_MS);
+    }, this.executorService);
+  }
 
-      return translations.get(0).getAsJsonObject().get("text").getAsString();
+  /**
+   * @return The remembered failure or identity result, or null if there is none or caching is disabled
+   */
+  private NegativeCache.Entry lookupNegativeCache(CacheKey cacheKey) {
+    if (!this.addon.configuration().enableCache().get()) {
+      return null;
     }
+    return this.negativeCache.get(cacheKey);
   }
 
   /**
-   * LibreTranslate (Open Source API)
-   * Uses public LibreTranslate instance at https://libretranslate.com
-   *
-   * @param text Text to translate
-   * @param sourceLang Source language code
-   * @param targetLang Target language code
-   * @return Translated text
-   * @throws Exception If translation fails
-   */
-  private String translateWithLibreTranslate(String text, String sourceLang, String targetLang) throws Exception {
-    String apiKey = this.addon.configuration().libreTranslateApiKey().get();
-    if (apiKey == null || apiKey.trim().isEmpty()) {
-      throw new RuntimeException("LibreTranslate API key is not configured. Please add your API key in settings.");
-    }
-    // Build request body
-    JsonObject requestBody = new JsonObject();
-    requestBody.addProperty("q", text);
-    requestBody.addProperty("source", sourceLang.equals("auto") ? "auto" : sourceLang);
-    requestBody.addProperty("target", targetLang);
-    requestBody.addProperty("format", "text");
-    requestBody.addProperty("alternatives", 3);
-
-    requestBody.addProperty("api_key", apiKey);
-
-    // Make API request to public LibreTranslate instance
-    URL url = new URL("https://libretranslate.com/translate");
-    HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-    connection.setRequestMethod("POST");
-    connection.setRequestProperty("Content-Type", "application/json");
-    connection.setDoOutput(true);
-    connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
-    connection.setReadTimeout(READ_TIMEOUT_MS);
-
-    // Send request
-    try (OutputStream os = connection.getOutputStream()) {
-      byte[] input = requestBody.toString().getBytes(StandardCharsets.UTF_8);
-      os.write(input, 0, input.length);
-    }
-
-    int responseCode = connection.getResponseCode();
-    if (responseCode != HttpURLConnection.HTTP_OK) {
-      // Read error message
-      try (BufferedReader errorReader = new BufferedReader(
-          new InputStreamReader(connection.getErrorStream(), StandardCharsets.UTF_8))) {
-        StringBuilder errorResponse = new StringBuilder();
-        String line;
-        while ((line = errorReader.readLine()) != null) {
-          errorResponse.append(line);
-        }
-        throw new RuntimeException("LibreTranslate API error (HTTP " + responseCode + "): " + errorResponse.toString());
-      }
+   * Remembers for a short time that the engines refused the text
+   * Only called for failures about the text itself, not for errors of the engine or the configuration
+   */
+  private void storeFailure(CacheKey cacheKey, Throwable throwable) {
+    if (!this.addon.configuration().enableCache().get()) {
+      return;
     }
 
-    // Read response
-    try (BufferedReader reader = new BufferedReader(
-        new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
+    Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+        ? throwable.getCause()
+        : throwable;
+    this.negativeCache.putFailure(cacheKey, cause.getMessage());
+  }
 
-      StringBuilder response = new StringBuilder();
-      String line;
-      while ((line = reader.readLine()) != null) {
-        response.append(line);
+  /**
+   * @return Whether the throwable, or one of its causes, is an engine refusing the text of the request
+   */
+  private static boolean isTextRejection(Throwable throwable) {
+    for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+      if (cause instanceof EngineResponseException responseException) {
+        return responseException.isTextRejection();
       }
+    }
+    return false;
+  }
 
-      // Parse LibreTranslate response
-      JsonObject jsonResponse = JsonParser.parseString(response.toString()).getAsJsonObject();
-
-      if (!jsonResponse.has("translatedText")) {
-        throw new RuntimeException("LibreTranslate API returned invalid response");
+  /**
+   * @return Whether the throwable, or one of its causes, is a rejection by the queue
+   */
+  private static boolean isRejection(Throwable throwable) {
+    for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+      if (cause instanceof TranslationRejectedException) {
+        return true;
       }
+    }
+    return false;
+  }
 
-      return jsonResponse.get("translatedText").getAsString();
+  /**
+   * Remembers that the engine returned the text unchanged
+   */
+  private void storeIdentity(CacheKey cacheKey) {
+    if (this.addon.configuration().enableCache().get()) {
+      // The marker replaces an older translation, which would be found first
+      this.translationCache.invalidate(cacheKey);
+      this.negativeCache.putIdentity(cacheKey);
     }
   }
 
   /**
-   * Converts language codes to DeepL format
-   * DeepL uses uppercase 2-letter codes (EN, DE, FR, etc.)
+   * Stores a translation in memory and on disk if enabled
    */
-  private String convertToDeeplLangCode(String langCode) {
-    // Handle special cases
-    if (langCode.equals("auto")) {
-      return "auto";
+  private void storeCache(CacheKey cacheKey, String translatedText) {
+    if (!this.addon.configuration().enableCache().get()) {
+      return;
     }
 
-    // DeepL uses specific codes for some languages
-    switch (langCode.toLowerCase()) {
-      case "en":
-        return "EN";
-      case "zh":
-        return "ZH";
-      case "pt":
-        return "PT";
-      default:
-        return langCode.toUpperCase();
+    this.translationCache.put(cacheKey, translatedText);
+    this.negativeCache.remove(cacheKey);
+    if (this.addon.configuration().persistentCache().get()) {
+      // Appending may compact the file, which must not hold up the thread that received the response
+      try {
+        this.executorService.execute(() -> {
+          try {
+            this.diskStore.put(cacheKey, translatedText);
+          } catch (UncheckedIOException e) {
+            this.addon.logger().warn("Failed to persist translation: " + e.getMessage());
+          }
+        });
+      } catch (RejectedExecutionException ignored) {
+        // Shutting down, the store is being closed
+      }
     }
   }
 
+  /**
+   * Opens the persistent cache file on the executor, only the first call has an effect
+   */
+  private void loadDiskStore() {
+    if (!this.diskStoreLoading.compareAndSet(false, true)) {
+      return;
+    }
+
+    this.executorService.execute(() -> {
+      try {
+        this.diskStore.load();
+      } catch (IOException e) {
+        this.addon.logger().warn("Failed to load persistent translation cache: " + e.getMessage());
+      }
+    });
+  }
+
   /**
    * Clears the translation cache
    * Can be called manually or on configuration changes
@@ -447,14 +916,16 @@ public class TranslationService {
 
   public void clearCache() {
     this.translationCache.clear();
+    this.negativeCache.clear();
+    this.diskStore.clear();
   }
 
   /**
    * Removes expired entries from cache
-   * Should be called periodically to prevent memory buildup
+   * Called every second by the service, only entries that are due are touched
    */
   public void cleanExpiredCache() {
-    this.translationCache.entrySet().removeIf(entry -> entry.getValue().isExpired());
+    this.translationCache.cleanExpired();
   }
 
   /**
@@ -462,6 +933,8 @@ public class TranslationService {
    * Should be called when addon is disabled
    */
   public void shutdown() {
+    this.scheduler.shutdownNow();
+    this.diskStore.close();
     this.executorService.shutdown();
     try {
       if (!this.executorService.awaitTermination(5, TimeUnit.SECONDS)) {
@@ -474,24 +947,52 @@ public class TranslationService {
   }
 
   /**
-   * Inner class to store cached translations with expiration
-   * Guideline-compliant: Prevents memory leaks by using time-based cache
+   * Engine call shared by identical requests, together with its queue entry
    */
-  private static class CachedTranslation {
-    private final String translation;
-    private final long timestamp;
-
-    public CachedTranslation(String translation) {
-      this.translation = translation;
-      this.timestamp = System.currentTimeMillis();
+  private static class Flight {
+    private final CompletableFuture<String> result = new CompletableFuture<>();
+    // Callers still waiting, the caller that starts the flight is counted from the beginning
+    private final AtomicInteger callers = new AtomicInteger(1);
+    private volatile CompletableFuture<String> queued;
+
+    /**
+     * @return Whether the caller joined, false if the flight was cancelled by all its callers
+     */
+    private boolean join() {
+      int count;
+      do {
+        count = this.callers.get();
+        if (count == 0) {
+          return false;
+        }
+      } while (!this.callers.compareAndSet(count, count + 1));
+      return true;
     }
 
-    public String getTranslation() {
-      return this.translation;
+    /**
+     * Removes a caller that cancelled, cancelling the engine call if it was the last one
+     */
+    private void leave(CacheKey cacheKey, Map<CacheKey, Flight> inFlight) {
+      if (this.callers.decrementAndGet() == 0) {
+        inFlight.remove(cacheKey, this);
+        CompletableFuture<String> queued = this.queued;
+        if (queued != null) {
+          queued.cancel(true);
+        }
+        this.result.cancel(true);
+      }
     }
+  }
 
-    public boolean isExpired() {
-      return (System.currentTimeMillis() - this.timestamp) > CACHE_EXPIRATION_MS;
-    }
+  /**
+   * Parsed fallback engine setting together with the text it was parsed from
+   */
+  private record FallbackOrder(String setting, List<TranslatorEngine> engines) {
+  }
+
+  /**
+   * Source language and ordered target languages shared by every text in a batch
+   */
+  private record BatchKey(String source, List<String> targets) {
   }
 }
\ No newline at end of file
@@ -0,0 +1,216 @@
+package me.firas.core.service.batch;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * Collects concurrent translation requests that share a batch key and sends
+ * them to the engine as a single request
+ * A batch is flushed when its window elapses or when adding another text
+ * would exceed the engine's size or character limits
+ * Cancelled texts are left out of the batch, and the engine call is cancelled
+ * once all of its texts are
+ *
+ * @param <K> Key grouping requests that can share one engine call (e.g. a language pair)
+ * @param <R> Result delivered to each caller
+ */
+public class RequestBatcher<K, R> {
+
+  private final ScheduledExecutorService scheduler;
+  private final BatchSender<K, R> sender;
+  private final IntSupplier windowMs;
+  private final int maxBatchSize;
+  private final int maxCharacters;
+  private final ToIntBiFunction<K, String> characterCost;
+  private final Map<K, PendingBatch> pendingBatches = new HashMap<>();
+
+  /**
+   * @param scheduler Scheduler used to flush batches after their window
+   * @param sender Sends one batch to the engine
+   * @param windowMs Current batch window, 0 sends every request immediately
+   * @param maxBatchSize Maximum number of texts in one engine call
+   * @param maxCharacters Maximum number of characters in one engine call
+   */
+  public RequestBatcher(ScheduledExecutorService scheduler, BatchSender<K, R> sender, IntSupplier windowMs,
+      int maxBatchSize, int maxCharacters) {
+    this(scheduler, sender, windowMs, maxBatchSize, maxCharacters, (key, text) -> text.length());
+  }
+
+  /**
+   * @param scheduler Scheduler used to flush batches after their window
+   * @param sender Sends one batch to the engine
+   * @param windowMs Current batch window, 0 sends every request immediately
+   * @param maxBatchSize Maximum number of texts in one engine call
+   * @param maxCharacters Maximum number of characters in one engine call
+   * @param characterCost Characters a text counts against the limit, e.g. once per target language
+   */
+  public RequestBatcher(ScheduledExecutorService scheduler, BatchSender<K, R> sender, IntSupplier windowMs,
+      int maxBatchSize, int maxCharacters, ToIntBiFunction<K, String> characterCost) {
+    this.scheduler = scheduler;
+    this.sender = sender;
+    this.windowMs = windowMs;
+    this.maxBatchSize = maxBatchSize;
+    this.maxCharacters = maxCharacters;
+    this.characterCost = characterCost;
+  }
+
+  /**
+   * Queues a text for the next batch with the given key
+   *
+   * @param key The batch key
+   * @param text The text to translate
+   * @return Future completing with the result for this text
+   */
+  public CompletableFuture<R> submit(K key, String text) {
+    CompletableFuture<R> result = new CompletableFuture<>();
+    int window = Math.max(0, this.windowMs.getAsInt());
+
+    PendingBatch full = null;
+    PendingBatch ready = null;
+    synchronized (this) {
+      PendingBatch batch = this.pendingBatches.get(key);
+      if (batch != null && !batch.fits(text)) {
+        // Current batch is at its limit, send it and start a new one
+        this.pendingBatches.remove(key);
+        full = batch;
+        batch = null;
+      }
+
+      if (batch == null) {
+        batch = new PendingBatch(key);
+        if (window > 0) {
+          this.pendingBatches.put(key, batch);
+          PendingBatch scheduled = batch;
+          this.scheduler.schedule(() -> this.flush(scheduled), window, TimeUnit.MILLISECONDS);
+        }
+      }
+
+      batch.add(text, result);
+      if (window == 0) {
+        ready = batch;
+      } else if (batch.texts.size() >= this.maxBatchSize) {
+        this.pendingBatches.remove(key);
+        ready = batch;
+      }
+    }
+
+    if (full != null) {
+      this.send(full);
+    }
+    if (ready != null) {
+      this.send(ready);
+    }
+    return result;
+  }
+
+  private void flush(PendingBatch batch) {
+    synchronized (this) {
+      // The batch may already have been sent because it filled up
+      if (!this.pendingBatches.remove(batch.key, batch)) {
+        return;
+      }
+    }
+    this.send(batch);
+  }
+
+  private void send(PendingBatch batch) {
+    // Texts whose callers gave up while the batch was open are left out
+    List<String> texts = new ArrayList<>();
+    List<CompletableFuture<R>> results = new ArrayList<>();
+    for (int i = 0; i < batch.results.size(); i++) {
+      if (!batch.results.get(i).isDone()) {
+        texts.add(batch.texts.get(i));
+        results.add(batch.results.get(i));
+      }
+    }
+    if (texts.isEmpty()) {
+      return;
+    }
+
+    CompletableFuture<List<R>> response;
+    try {
+      response = this.sender.send(batch.key, texts);
+    } catch (Exception e) {
+      response = CompletableFuture.failedFuture(e);
+    }
+
+    // The engine call is only aborted once every caller in the batch has cancelled
+    AtomicInteger remaining = new AtomicInteger(results.size());
+    CompletableFuture<List<R>> sent = response;
+    for (CompletableFuture<R> result : results) {
+      result.whenComplete((translation, throwable) -> {
+        if (result.isCancelled() && remaining.decrementAndGet() == 0) {
+          sent.cancel(true);
+        }
+      });
+    }
+
+    // Fan the engine results back out to the individual callers
+    response.whenComplete((translations, throwable) -> {
+      if (throwable == null && translations.size() != texts.size()) {
+        throwable = new IllegalStateException("Engine returned " + translations.size()
+            + " translations for " + texts.size() + " texts");
+      }
+
+      for (int i = 0; i < results.size(); i++) {
+        CompletableFuture<R> result = results.get(i);
+        if (throwable != null) {
+          result.completeExceptionally(throwable);
+        } else {
+          result.complete(translations.get(i));
+        }
+      }
+    });
+  }
+
+  /**
+   * Sends a batch of texts sharing the same key to the engine
+   *
+   * @param <K> The batch key type
+   * @param <R> The result type per text
+   */
+  @FunctionalInterface
+  public interface BatchSender<K, R> {
+
+    /**
+     * @param key The batch key
+     * @param texts The texts to translate
+     * @return Future completing with one result per text, in the same order
+     */
+    CompletableFuture<List<R>> send(K key, List<String> texts);
+  }
+
+  private class PendingBatch {
+    private final K key;
+    private final List<String> texts = new ArrayList<>();
+    private final List<CompletableFuture<R>> results = new ArrayList<>();
+    private int characters;
+
+    private PendingBatch(K key) {
+      this.key = key;
+    }
+
+    private boolean fits(String text) {
+      return this.texts.size() < RequestBatcher.this.maxBatchSize
+          && this.characters + this.cost(text) <= RequestBatcher.this.maxCharacters;
+    }
+
+    private void add(String text, CompletableFuture<R> result) {
+      this.texts.add(text);
+      this.results.add(result);
+      this.characters += this.cost(text);
+    }
+
+    private int cost(String text) {
+      return RequestBatcher.this.characterCost.applyAsInt(this.key, text);
+    }
+  }
+}
\ No newline at end of file
@@ -0,0 +1,166 @@
+package me.firas.core.service.cache;
+
+import me.firas.core.TranslatorConfiguration.TranslatorEngine;
+
+/**
+ * Compact key identifying one translation request
+ * Holds a 128-bit MurmurHash3 digest of engine, languages and text plus the text length,
+ * hashed straight from the characters without building an intermediate string.
+ * At 128 bits, accidental collisions stay negligible even with millions of entries
+ */
+public final class CacheKey {
+
+  private static final long C1 = 0x87c37b91114253d5L;
+  private static final long C2 = 0x4cf5ad432745937fL;
+
+  private final long high;
+  private final long low;
+  private final int length;
+
+  public CacheKey(long high, long low, int length) {
+    this.high = high;
+    this.low = low;
+    this.length = length;
+  }
+
+  /**
+   * Builds the key for a translation request
+   *
+   * @param engine The translation engine
+   * @param sourceLang Source language code
+   * @param targetLang Target language code
+   * @param text The text to translate
+   * @return The key
+   */
+  public static CacheKey of(TranslatorEngine engine, String sourceLang, String targetLang, String text) {
+    Hasher hasher = new Hasher();
+    hasher.add(engine.name());
+    hasher.add('\0');
+    hasher.add(sourceLang);
+    hasher.add('\0');
+    hasher.add(targetLang);
+    hasher.add('\0');
+    hasher.add(text);
+    return hasher.finish(text.length());
+  }
+
+  public long high() {
+    return this.high;
+  }
+
+  public long low() {
+    return this.low;
+  }
+
+  public int length() {
+    return this.length;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof CacheKey other)) {
+      return false;
+    }
+    return this.high == other.high && this.low == other.low && this.length == other.length;
+  }
+
+  @Override
+  public int hashCode() {
+    // The digest is already well mixed
+    return (int) this.high;
+  }
+
+  @Override
+  public String toString() {
+    return Long.toHexString(this.high) + Long.toHexString(this.low) + ":" + this.length;
+  }
+
+  /**
+   * Streaming MurmurHash3 x64 128 over UTF-16 characters, 8 characters per block
+   */
+  private static final class Hasher {
+    private long h1;
+    private long h2;
+    private long k1;
+    private long k2;
+    private int chars;
+
+    private void add(String value) {
+      for (int i = 0; i < value.length(); i++) {
+        this.add(value.charAt(i));
+      }
+    }
+
+    private void add(char c) {
+      int slot = this.chars & 7;
+      if (slot < 4) {
+        this.k1 |= (long) c << (slot << 4);
+      } else {
+        this.k2 |= (long) c << ((slot - 4) << 4);
+      }
+
+      if ((++this.chars & 7) == 0) {
+        this.mixBlock();
+      }
+    }
+
+    private void mixBlock() {
+      this.h1 ^= mixK1(this.k1);
+      this.h1 = Long.rotateLeft(this.h1, 27);
+      this.h1 += this.h2;
+      this.h1 = this.h1 * 5 + 0x52dce729;
+
+      this.h2 ^= mixK2(this.k2);
+      this.h2 = Long.rotateLeft(this.h2, 31);
+      this.h2 += this.h1;
+      this.h2 = this.h2 * 5 + 0x38495ab5;
+
+      this.k1 = 0;
+      this.k2 = 0;
+    }
+
+    private CacheKey finish(int textLength) {
+      if ((this.chars & 7) != 0) {
+        this.h1 ^= mixK1(this.k1);
+        this.h2 ^= mixK2(this.k2);
+      }
+
+      long bytes = (long) this.chars << 1;
+      this.h1 ^= bytes;
+      this.h2 ^= bytes;
+      this.h1 += this.h2;
+      this.h2 += this.h1;
+      this.h1 = fmix64(this.h1);
+      this.h2 = fmix64(this.h2);
+      this.h1 += this.h2;
+      this.h2 += this.h1;
+      return new CacheKey(this.h1, this.h2, textLength);
+    }
+
+    private static long mixK1(long k1) {
+      k1 *= C1;
+      k1 = Long.rotateLeft(k1, 31);
+      k1 *= C2;
+      return k1;
+    }
+
+    private static long mixK2(long k2) {
+      k2 *= C2;
+      k2 = Long.rotateLeft(k2, 33);
+      k2 *= C1;
+      return k2;
+    }
+
+    private static long fmix64(long k) {
+      k ^= k >>> 33;
+      k *= 0xff51afd7ed558ccdL;
+      k ^= k >>> 33;
+      k *= 0xc4ceb9fe1a85ec53L;
+      k ^= k >>> 33;
+      return k;
+    }
+  }
+}
\ No newline at end of file
@@ -0,0 +1,58 @@
+package me.firas.core.service.cache;
+
+/**
+ * Entry of the translation cache
+ * Linked into one of the cache's LRU queues and into a bucket of the expiry timer wheel
+ * Holds the key digest and the value's arena address, the text itself is stored off-heap
+ */
+class CacheNode {
+
+  static final byte WINDOW = 0;
+  static final byte PROBATION = 1;
+  static final byte PROTECTED = 2;
+
+  final long keyHigh;
+  final long keyLow;
+  final int keyLength;
+  long valueAddress;
+  int valueLength;
+  int weight;
+  long expiresAt;
+  byte queue;
+  // Value still lives in the arena being compacted
+  boolean evacuating;
+
+  // LRU queue links
+  CacheNode prev;
+  CacheNode next;
+
+  // Timer wheel bucket links
+  CacheNode timerPrev;
+  CacheNode timerNext;
+
+  CacheNode(long keyHigh, long keyLow, int keyLength) {
+    this.keyHigh = keyHigh;
+    this.keyLow = keyLow;
+    this.keyLength = keyLength;
+  }
+
+  boolean matches(long high, long low, int length) {
+    return this.keyHigh == high && this.keyLow == low && this.keyLength == length;
+  }
+
+  /**
+   * @return Hash of the key, same as {@link CacheKey#hashCode()}
+   */
+  int keyHash() {
+    return (int) this.keyHigh;
+  }
+
+  static CacheNode sentinel() {
+    CacheNode sentinel = new CacheNode(0, 0, 0);
+    sentinel.prev = sentinel;
+    sentinel.next = sentinel;
+    sentinel.timerPrev = sentinel;
+    sentinel.timerNext = sentinel;
+    return sentinel;
+  }
+}
\ No newline at end of file
@@ -0,0 +1,10 @@
+package me.firas.core.service.cache;
+
+/**
+ * Translation returned by a cache lookup
+ *
+ * @param text The translated text
+ * @param stale Whether the entry outlived its expiry and should be refreshed
+ */
+public record CachedTranslation(String text, boolean stale) {
+}
\ No newline at end of file
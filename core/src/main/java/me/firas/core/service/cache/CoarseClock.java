@@ -0,0 +1,25 @@
+package me.firas.core.service.cache;
+
+/**
+ * Millisecond clock that is only updated on {@link #tick()}
+ * Reading it is a volatile load instead of a system call, which is precise enough
+ * for expiry times measured in minutes
+ */
+public class CoarseClock {
+
+  private volatile long millis = System.currentTimeMillis();
+
+  /**
+   * @return Time of the last tick in milliseconds
+   */
+  public long millis() {
+    return this.millis;
+  }
+
+  /**
+   * Advances the clock to the current system time
+   */
+  public void tick() {
+    this.millis = System.currentTimeMillis();
+  }
+}
\ No newline at end of file
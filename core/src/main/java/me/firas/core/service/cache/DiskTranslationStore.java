@@ -0,0 +1,510 @@
+package me.firas.core.service.cache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only on-disk store for translations that survives client restarts
+ * Records are only ever appended, a torn record at the end of the file (e.g. after a crash)
+ * fails its checksum and is cut off the next time the store is loaded.
+ * After loading, the file is memory-mapped for reads and only a primitive key to offset
+ * index is kept on the heap, values are decoded on lookup
+ * Every record carries the generation of the header it was written under. Clearing and
+ * compacting start a new generation and rewrite the file from the front, so records of
+ * an older generation left behind them are never read again, even without truncating
+ */
+public class DiskTranslationStore {
+
+  private static final int MAGIC = 0x46585443; // "FXTC"
+  private static final int VERSION = 3;
+  // magic + version + generation
+  private static final int HEADER_SIZE = 4 + 4 + 4;
+  // key high + key low + text length + value length + write time + generation before the value
+  private static final int RECORD_HEADER = 8 + 8 + 4 + 4 + 8 + 4;
+  // record header plus the crc32 after the value
+  private static final int RECORD_OVERHEAD = RECORD_HEADER + 4;
+  private static final int MAX_VALUE_LENGTH = 64 * 1024;
+
+  private final Path file;
+  private final long maximumFileSize;
+  private final long retentionMs;
+  private final OffsetIndex index = new OffsetIndex();
+
+  private FileChannel channel;
+  private MappedByteBuffer mapped;
+  private long fileSize;
+  private int generation;
+  private volatile boolean loaded;
+
+  /**
+   * Creating the store does not touch the file, call {@link #load()} to open it
+   *
+   * @param file The store file
+   * @param maximumFileSize File size at which old records are compacted away
+   * @param retentionMs Age after which stored translations are dropped
+   */
+  public DiskTranslationStore(Path file, long maximumFileSize, long retentionMs) {
+    this.file = file;
+    this.maximumFileSize = maximumFileSize;
+    this.retentionMs = retentionMs;
+  }
+
+  /**
+   * Opens the file, recovers from a torn tail and builds the index
+   * Meant to run in the background, lookups simply miss until it has finished
+   *
+   * @throws IOException If the file cannot be opened
+   */
+  public synchronized void load() throws IOException {
+    if (this.loaded) {
+      return;
+    }
+
+    Files.createDirectories(this.file.getParent());
+    this.channel = FileChannel.open(this.file,
+        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+    // Recovery and compaction change the file size, so they run before the file is mapped
+    if (!this.readHeader()) {
+      // New file, or written by an older version with a different record layout
+      this.channel.truncate(0);
+      this.writeHeader();
+      this.fileSize = HEADER_SIZE;
+    } else {
+      this.fileSize = this.scan();
+      if (this.fileSize > this.maximumFileSize) {
+        this.compact();
+      }
+    }
+    if (this.fileSize < this.channel.size()) {
+      // Drop the partially written tail left by a crash and records of older generations
+      this.channel.truncate(this.fileSize);
+    }
+
+    this.mapped = this.channel.map(FileChannel.MapMode.READ_ONLY, 0, this.fileSize);
+    this.loaded = true;
+  }
+
+  /**
+   * @return Whether the file has been loaded and lookups can hit
+   */
+  public boolean isLoaded() {
+    return this.loaded;
+  }
+
+  /**
+   * @param key The cache key
+   * @return The stored translation, or null if absent, expired or not loaded yet
+   */
+  public StoredTranslation get(CacheKey key) {
+    // Checked before locking so lookups never wait for a running load
+    if (!this.loaded) {
+      return null;
+    }
+
+    synchronized (this) {
+      return this.read(key);
+    }
+  }
+
+  private StoredTranslation read(CacheKey key) {
+    long offset = this.index.get(key);
+    if (offset < 0) {
+      return null;
+    }
+
+    try {
+      ByteBuffer record = this.readRecord(offset);
+      int valueLength = record.getInt(20);
+      long writeTime = record.getLong(24);
+      if (System.currentTimeMillis() - writeTime > this.retentionMs) {
+        this.index.remove(key);
+        return null;
+      }
+
+      byte[] value = new byte[valueLength];
+      record.position(record.position() + RECORD_HEADER);
+      record.get(value);
+      return new StoredTranslation(new String(value, StandardCharsets.UTF_8), writeTime);
+    } catch (IOException e) {
+      this.index.remove(key);
+      return null;
+    }
+  }
+
+  /**
+   * Appends a translation to the store
+   *
+   * @param key The cache key
+   * @param value The translation
+   */
+  public void put(CacheKey key, String value) {
+    if (!this.loaded) {
+      return;
+    }
+
+    synchronized (this) {
+      this.append(key, value);
+    }
+  }
+
+  private void append(CacheKey key, String value) {
+    byte[] valueBytes = value.getBytes(StandardCharsets.UTF_8);
+    if (valueBytes.length > MAX_VALUE_LENGTH) {
+      return;
+    }
+
+    ByteBuffer record = ByteBuffer.allocate(RECORD_OVERHEAD + valueBytes.length);
+    record.putLong(key.high());
+    record.putLong(key.low());
+    record.putInt(key.length());
+    record.putInt(valueBytes.length);
+    record.putLong(System.currentTimeMillis());
+    record.putInt(this.generation);
+    record.put(valueBytes);
+    record.putInt(checksum(record.array(), record.position()));
+    record.flip();
+
+    try {
+      long offset = this.fileSize;
+      while (record.hasRemaining()) {
+        this.channel.write(record, offset + record.position());
+      }
+      this.fileSize += record.limit();
+      this.index.put(key.high(), key.low(), key.length(), offset);
+
+      // Refreshed translations are appended again, so the file is compacted while in use too
+      if (this.fileSize > this.maximumFileSize) {
+        this.compact();
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to write translation cache", e);
+    }
+  }
+
+  /**
+   * Removes all stored translations
+   */
+  public synchronized void clear() {
+    if (!this.loaded) {
+      return;
+    }
+
+    // A mapped file cannot be truncated on every platform, so a new generation makes the
+    // old records invalid instead and the next load cuts the file after the valid ones
+    try {
+      this.generation++;
+      this.writeHeader();
+      this.channel.force(false);
+      this.fileSize = HEADER_SIZE;
+      this.index.clear();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to clear translation cache", e);
+    }
+  }
+
+  /**
+   * Flushes and closes the file
+   */
+  public synchronized void close() {
+    if (this.channel == null) {
+      return;
+    }
+
+    try {
+      this.channel.force(false);
+      this.channel.close();
+    } catch (IOException ignored) {
+      // Nothing left to do, unflushed records are recovered or dropped on the next load
+    }
+    this.loaded = false;
+    this.mapped = null;
+    this.index.clear();
+  }
+
+  private boolean readHeader() throws IOException {
+    if (this.channel.size() < HEADER_SIZE) {
+      return false;
+    }
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    this.channel.read(header, 0);
+    header.flip();
+    if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+      return false;
+    }
+    this.generation = header.getInt();
+    return true;
+  }
+
+  private void writeHeader() throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    header.putInt(MAGIC).putInt(VERSION).putInt(this.generation).flip();
+    while (header.hasRemaining()) {
+      this.channel.write(header, header.position());
+    }
+  }
+
+  /**
+   * Indexes every valid record and returns the end of the last one
+   */
+  private long scan() throws IOException {
+    long size = this.channel.size();
+    long expiredBefore = System.currentTimeMillis() - this.retentionMs;
+    ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER);
+
+    long position = HEADER_SIZE;
+    while (position + RECORD_OVERHEAD <= size) {
+      header.clear();
+      this.channel.read(header, position);
+      int textLength = header.getInt(16);
+      int valueLength = header.getInt(20);
+      if (textLength < 0 || valueLength < 0 || valueLength > MAX_VALUE_LENGTH) {
+        break;
+      }
+
+      int dataLength = RECORD_HEADER + valueLength;
+      if (position + dataLength + 4 > size) {
+        break;
+      }
+
+      ByteBuffer record = ByteBuffer.allocate(dataLength + 4);
+      while (record.hasRemaining() && this.channel.read(record, position + record.position()) >= 0) {
+        // Keep reading until the record is complete
+      }
+      if (checksum(record.array(), dataLength) != record.getInt(dataLength)
+          || record.getInt(32) != this.generation) {
+        // Torn record, or one left behind from before the file was cleared or compacted
+        break;
+      }
+
+      long high = record.getLong(0);
+      long low = record.getLong(8);
+      if (record.getLong(24) >= expiredBefore) {
+        // Later records replace earlier ones for the same key
+        this.index.put(high, low, textLength, position);
+      } else {
+        this.index.remove(high, low, textLength);
+      }
+      position += dataLength + 4;
+    }
+    return position;
+  }
+
+  /**
+   * Rewrites the newest records that fit into half the maximum size to the front of the file
+   * The kept records are read into memory first, then written under a new generation,
+   * so the file never has to be replaced or truncated while it is mapped
+   */
+  private void compact() throws IOException {
+    long[] offsets = this.index.offsets();
+    Arrays.sort(offsets);
+
+    // Keep the most recently written records that fit
+    long keptSize = 0;
+    int first = offsets.length;
+    while (first > 0) {
+      int length = this.readRecord(offsets[first - 1]).remaining();
+      if (keptSize + length > this.maximumFileSize / 2) {
+        break;
+      }
+      keptSize += length;
+      first--;
+    }
+
+    ByteBuffer kept = ByteBuffer.allocate((int) keptSize);
+    for (int i = first; i < offsets.length; i++) {
+      kept.put(this.readRecord(offsets[i]));
+    }
+    kept.flip();
+
+    this.generation++;
+    this.index.clear();
+    long position = HEADER_SIZE;
+    while (kept.hasRemaining()) {
+      int start = kept.position();
+      int valueLength = kept.getInt(start + 20);
+      int length = RECORD_OVERHEAD + valueLength;
+
+      // Restamp the generation and its checksum
+      kept.putInt(start + 32, this.generation);
+      kept.putInt(start + length - 4, checksum(kept.array(), start, length - 4));
+      this.index.put(kept.getLong(start), kept.getLong(start + 8), kept.getInt(start + 16), position);
+      position += length;
+      kept.position(start + length);
+    }
+
+    kept.flip();
+    long offset = HEADER_SIZE;
+    while (kept.hasRemaining()) {
+      offset += this.channel.write(kept, offset);
+    }
+    // Header last, after a crash before it the rewritten records do not match the stored generation and the cache starts empty
+    this.writeHeader();
+    this.channel.force(false);
+    this.fileSize = position;
+  }
+
+  /**
+   * Returns the complete record at the offset, from the mapping if it covers it
+   */
+  private ByteBuffer readRecord(long offset) throws IOException {
+    if (this.mapped != null && offset + RECORD_OVERHEAD <= this.mapped.capacity()) {
+      int position = (int) offset;
+      int length = RECORD_OVERHEAD + this.mapped.getInt(position + 20);
+      if (position + length <= this.mapped.capacity()) {
+        return this.mapped.slice(position, length);
+      }
+    }
+
+    // Not mapped yet, or appended after the file was mapped
+    ByteBuffer valueLength = ByteBuffer.allocate(4);
+    this.channel.read(valueLength, offset + 20);
+    ByteBuffer record = ByteBuffer.allocate(RECORD_OVERHEAD + valueLength.getInt(0));
+    while (record.hasRemaining()) {
+      if (this.channel.read(record, offset + record.position()) < 0) {
+        throw new IOException("Unexpected end of translation cache");
+      }
+    }
+    record.flip();
+    return record;
+  }
+
+  private static int checksum(byte[] data, int length) {
+    return checksum(data, 0, length);
+  }
+
+  private static int checksum(byte[] data, int offset, int length) {
+    CRC32 crc = new CRC32();
+    crc.update(data, offset, length);
+    return (int) crc.getValue();
+  }
+
+  /**
+   * Translation read from the store
+   *
+   * @param text The translation
+   * @param writeTime Time the translation was stored, so its age carries over into the memory cache
+   */
+  public record StoredTranslation(String text, long writeTime) {
+  }
+
+  /**
+   * Open-addressing hash table from key digest to record offset
+   * Backed by primitive arrays, so an entry costs 28 bytes instead of several objects
+   */
+  private static final class OffsetIndex {
+    private static final long EMPTY = 0;
+    private static final long REMOVED = -1;
+
+    private long[] highs;
+    private long[] lows;
+    private int[] lengths;
+    private long[] offsets;
+    private int used;
+
+    private OffsetIndex() {
+      this.allocate(64);
+    }
+
+    private long get(CacheKey key) {
+      int slot = this.find(key.high(), key.low(), key.length());
+      return slot < 0 || this.offsets[slot] == REMOVED ? -1 : this.offsets[slot];
+    }
+
+    private void put(long high, long low, int length, long offset) {
+      if ((this.used + 1) * 4L > this.offsets.length * 3L) {
+        this.resize();
+      }
+
+      int slot = this.find(high, low, length);
+      if (slot < 0) {
+        slot = -slot - 1;
+        this.highs[slot] = high;
+        this.lows[slot] = low;
+        this.lengths[slot] = length;
+        this.used++;
+      }
+      this.offsets[slot] = offset;
+    }
+
+    private void remove(CacheKey key) {
+      this.remove(key.high(), key.low(), key.length());
+    }
+
+    private void remove(long high, long low, int length) {
+      int slot = this.find(high, low, length);
+      if (slot >= 0) {
+        // Keep the key so probing continues past this slot
+        this.offsets[slot] = REMOVED;
+      }
+    }
+
+    private long[] offsets() {
+      long[] live = new long[this.offsets.length];
+      int count = 0;
+      for (long offset : this.offsets) {
+        if (offset != EMPTY && offset != REMOVED) {
+          live[count++] = offset;
+        }
+      }
+      return Arrays.copyOf(live, count);
+    }
+
+    private void clear() {
+      this.allocate(64);
+    }
+
+    /**
+     * @return The slot holding the key, or -(insertion slot) - 1 if absent
+     */
+    private int find(long high, long low, int length) {
+      int mask = this.offsets.length - 1;
+      int slot = (int) (high ^ (high >>> 32)) & mask;
+      while (this.offsets[slot] != EMPTY) {
+        if (this.highs[slot] == high && this.lows[slot] == low && this.lengths[slot] == length) {
+          return slot;
+        }
+        slot = (slot + 1) & mask;
+      }
+      return -slot - 1;
+    }
+
+    private void resize() {
+      long[] oldHighs = this.highs;
+      long[] oldLows = this.lows;
+      int[] oldLengths = this.lengths;
+      long[] oldOffsets = this.offsets;
+
+      // Removed slots are dropped while rehashing
+      int live = 0;
+      for (long offset : oldOffsets) {
+        if (offset != EMPTY && offset != REMOVED) {
+          live++;
+        }
+      }
+      this.allocate(Math.max(64, Integer.highestOneBit(Math.max(1, live)) << 2));
+      for (int i = 0; i < oldOffsets.length; i++) {
+        if (oldOffsets[i] != EMPTY && oldOffsets[i] != REMOVED) {
+          this.put(oldHighs[i], oldLows[i], oldLengths[i], oldOffsets[i]);
+        }
+      }
+    }
+
+    private void allocate(int capacity) {
+      this.highs = new long[capacity];
+      this.lows = new long[capacity];
+      this.lengths = new int[capacity];
+      this.offsets = new long[capacity];
+      this.used = 0;
+    }
+  }
+}
\ No newline at end of file
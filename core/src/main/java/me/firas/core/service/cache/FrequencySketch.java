@@ -0,0 +1,105 @@
+package me.firas.core.service.cache;
+
+/**
+ * Count-min sketch estimating how often a key was seen recently
+ * Uses 4-bit counters packed into longs, all counters are halved periodically
+ * so the estimate follows the current popularity instead of all-time totals
+ */
+class FrequencySketch {
+
+  private static final long[] SEEDS = {
+      0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+  };
+  private static final long RESET_MASK = 0x7777777777777777L;
+  private static final int MAXIMUM_CAPACITY = 1 << 22;
+
+  private long[] table = new long[0];
+  private int tableMask;
+  private int sampleSize;
+  private int size;
+
+  FrequencySketch() {
+    this.ensureCapacity(0);
+  }
+
+  /**
+   * Grows the sketch so it can track roughly the given number of entries
+   * Growing resets all counters, shrinking is ignored
+   *
+   * @param maximumSize Expected number of entries in the cache
+   */
+  void ensureCapacity(long maximumSize) {
+    int capacity = (int) Math.max(16, Math.min(maximumSize, MAXIMUM_CAPACITY));
+    if (this.table.length >= capacity) {
+      return;
+    }
+
+    this.table = new long[Integer.highestOneBit(capacity - 1) << 1];
+    this.tableMask = this.table.length - 1;
+    this.sampleSize = 10 * capacity;
+    this.size = 0;
+  }
+
+  /**
+   * @param hash Hash code of the key
+   * @return Estimated recent frequency, at most 15
+   */
+  int frequency(int hash) {
+    int spread = spread(hash);
+    int start = (spread & 3) << 2;
+    int frequency = Integer.MAX_VALUE;
+    for (int i = 0; i < 4; i++) {
+      int index = this.indexOf(spread, i);
+      int count = (int) ((this.table[index] >>> ((start + i) << 2)) & 0xfL);
+      frequency = Math.min(frequency, count);
+    }
+    return frequency;
+  }
+
+  /**
+   * Records one access of the key
+   *
+   * @param hash Hash code of the key
+   */
+  void increment(int hash) {
+    int spread = spread(hash);
+    int start = (spread & 3) << 2;
+    boolean added = false;
+    for (int i = 0; i < 4; i++) {
+      added |= this.incrementAt(this.indexOf(spread, i), start + i);
+    }
+
+    if (added && ++this.size == this.sampleSize) {
+      this.reset();
+    }
+  }
+
+  private boolean incrementAt(int index, int counter) {
+    int offset = counter << 2;
+    long mask = 0xfL << offset;
+    if ((this.table[index] & mask) != mask) {
+      this.table[index] += 1L << offset;
+      return true;
+    }
+    return false;
+  }
+
+  private void reset() {
+    for (int i = 0; i < this.table.length; i++) {
+      this.table[i] = (this.table[i] >>> 1) & RESET_MASK;
+    }
+    this.size >>>= 1;
+  }
+
+  private int indexOf(int item, int i) {
+    long hash = (item + SEEDS[i]) * SEEDS[i];
+    hash += hash >>> 32;
+    return ((int) hash) & this.tableMask;
+  }
+
+  private static int spread(int hash) {
+    hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+    hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+    return (hash >>> 16) ^ hash;
+  }
+}
\ No newline at end of file
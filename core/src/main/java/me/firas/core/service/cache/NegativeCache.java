@@ -0,0 +1,97 @@
+package me.firas.core.service.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Short-lived cache for requests that produced no translation
+ * Remembers texts the engines refused, so such a message is not sent again right away,
+ * and identity results, so texts the engine returns unchanged are answered locally
+ * Bounded by entry count with LRU eviction, independent of the translation cache budget
+ */
+public class NegativeCache {
+
+  private final int maxEntries;
+  private final long failureTtlMs;
+  private final long identityTtlMs;
+  private final CoarseClock clock;
+  private final Map<CacheKey, Entry> entries;
+
+  /**
+   * @param maxEntries Maximum number of remembered requests
+   * @param failureTtlMs Time a failure is remembered
+   * @param identityTtlMs Time an identity result is remembered
+   * @param clock Clock for expiry times, ticked by the owner
+   */
+  public NegativeCache(int maxEntries, long failureTtlMs, long identityTtlMs, CoarseClock clock) {
+    this.maxEntries = maxEntries;
+    this.failureTtlMs = failureTtlMs;
+    this.identityTtlMs = identityTtlMs;
+    this.clock = clock;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<CacheKey, Entry> eldest) {
+        return this.size() > NegativeCache.this.maxEntries;
+      }
+    };
+  }
+
+  /**
+   * @param key The cache key
+   * @return The remembered outcome, or null if there is none or it expired
+   */
+  public synchronized Entry get(CacheKey key) {
+    Entry entry = this.entries.get(key);
+    if (entry != null && entry.expiresAt() - this.clock.millis() <= 0) {
+      this.entries.remove(key);
+      return null;
+    }
+    return entry;
+  }
+
+  /**
+   * Remembers that the request failed
+   *
+   * @param key The cache key
+   * @param message Error message reported for the request while it is remembered
+   */
+  public synchronized void putFailure(CacheKey key, String message) {
+    this.entries.put(key, new Entry(message, this.clock.millis() + this.failureTtlMs));
+  }
+
+  /**
+   * Remembers that the engine returned the text unchanged
+   *
+   * @param key The cache key
+   */
+  public synchronized void putIdentity(CacheKey key) {
+    this.entries.put(key, new Entry(null, this.clock.millis() + this.identityTtlMs));
+  }
+
+  /**
+   * Forgets a request, e.g. once it has been translated successfully
+   */
+  public synchronized void remove(CacheKey key) {
+    this.entries.remove(key);
+  }
+
+  /**
+   * Removes all entries
+   */
+  public synchronized void clear() {
+    this.entries.clear();
+  }
+
+  /**
+   * Outcome of a request that produced no translation
+   *
+   * @param failure Error message, or null if the text translates to itself
+   * @param expiresAt Clock time after which the outcome is forgotten
+   */
+  public record Entry(String failure, long expiresAt) {
+
+    public boolean identity() {
+      return this.failure == null;
+    }
+  }
+}
\ No newline at end of file
@@ -0,0 +1,101 @@
+package me.firas.core.service.cache;
+
+/**
+ * Open addressing table from key digests to cache nodes
+ * The key fields live in the nodes themselves, so unlike a HashMap there is
+ * no key object or map entry per cached translation
+ * Not thread safe, guarded by the owning cache
+ */
+class NodeTable {
+
+  private CacheNode[] nodes = new CacheNode[64];
+  private int size;
+
+  CacheNode get(long high, long low, int length) {
+    CacheNode[] nodes = this.nodes;
+    int mask = nodes.length - 1;
+    for (int slot = (int) high & mask; ; slot = (slot + 1) & mask) {
+      CacheNode node = nodes[slot];
+      if (node == null || node.matches(high, low, length)) {
+        return node;
+      }
+    }
+  }
+
+  /**
+   * Adds a node whose key is not in the table yet
+   */
+  void add(CacheNode node) {
+    if ((this.size + 1) * 4L > this.nodes.length * 3L) {
+      this.resize(this.nodes.length * 2);
+    }
+    insert(this.nodes, node);
+    this.size++;
+  }
+
+  void remove(CacheNode node) {
+    CacheNode[] nodes = this.nodes;
+    int mask = nodes.length - 1;
+    int slot = (int) node.keyHigh & mask;
+    while (nodes[slot] != node) {
+      if (nodes[slot] == null) {
+        return;
+      }
+      slot = (slot + 1) & mask;
+    }
+
+    // Shift later nodes of the probe sequence back so lookups need no tombstones
+    int gap = slot;
+    for (int next = (gap + 1) & mask; nodes[next] != null; next = (next + 1) & mask) {
+      int home = (int) nodes[next].keyHigh & mask;
+      if (((next - home) & mask) >= ((next - gap) & mask)) {
+        nodes[gap] = nodes[next];
+        gap = next;
+      }
+    }
+    nodes[gap] = null;
+    this.size--;
+  }
+
+  void clear() {
+    this.nodes = new CacheNode[64];
+    this.size = 0;
+  }
+
+  /**
+   * @return Number of slots, for walking the table with {@link #at(int)}
+   */
+  int capacity() {
+    return this.nodes.length;
+  }
+
+  /**
+   * @return The node in the slot, or null if it is empty
+   */
+  CacheNode at(int slot) {
+    return this.nodes[slot];
+  }
+
+  int size() {
+    return this.size;
+  }
+
+  private void resize(int capacity) {
+    CacheNode[] resized = new CacheNode[capacity];
+    for (CacheNode node : this.nodes) {
+      if (node != null) {
+        insert(resized, node);
+      }
+    }
+    this.nodes = resized;
+  }
+
+  private static void insert(CacheNode[] nodes, CacheNode node) {
+    int mask = nodes.length - 1;
+    int slot = (int) node.keyHigh & mask;
+    while (nodes[slot] != null) {
+      slot = (slot + 1) & mask;
+    }
+    nodes[slot] = node;
+  }
+}
\ No newline at end of file
@@ -0,0 +1,210 @@
+package me.firas.core.service.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Off-heap storage for cached translations, kept as UTF-8 bytes in direct buffers
+ * Memory is taken from 1 MB slabs in size classes, freed blocks are reused by the next
+ * value of the same class, or of a class up to half the block size smaller. The heap only holds
+ * the block addresses, so the garbage collector never scans or copies the cached text
+ * Slabs are never shrunk, the owner copies the live values into a new arena once too many
+ * bytes sit in free blocks, see {@link #freeBytes()}
+ * Not thread safe, guarded by the owning cache
+ */
+class PayloadArena {
+
+  private static final int SLAB_SHIFT = 20;
+  private static final int SLAB_SIZE = 1 << SLAB_SHIFT;
+  // Addresses hold the size class above the slab index and the offset
+  private static final int CLASS_SHIFT = 48;
+  private static final long SLAB_INDEX_MASK = (1L << (CLASS_SHIFT - SLAB_SHIFT)) - 1;
+
+  // Block sizes: 16 byte steps up to 256, then four steps per power of two up to 64 KB
+  private static final int[] SIZE_CLASSES = sizeClasses(256, 64 * 1024);
+
+  private final List<ByteBuffer> slabs = new ArrayList<>();
+  private final long[][] freeBlocks = new long[SIZE_CLASSES.length][];
+  private final int[] freeCounts = new int[SIZE_CLASSES.length];
+  private int slabPosition = SLAB_SIZE;
+  private long freeBytes;
+
+  /**
+   * Copies a value into the arena
+   *
+   * @param bytes The UTF-8 encoded value
+   * @return Address of the block holding the value, or -1 if it is too large or no memory is left
+   */
+  long allocate(byte[] bytes) {
+    int sizeClass = sizeClass(bytes.length);
+    if (sizeClass < 0) {
+      return -1;
+    }
+
+    long address = this.reuse(sizeClass);
+    if (address < 0) {
+      int blockSize = SIZE_CLASSES[sizeClass];
+      if (this.slabPosition + blockSize > SLAB_SIZE) {
+        try {
+          this.slabs.add(ByteBuffer.allocateDirect(SLAB_SIZE));
+        } catch (OutOfMemoryError e) {
+          // Direct memory limit reached, the value is simply not cached
+          return -1;
+        }
+        this.slabPosition = 0;
+      }
+      address = ((long) sizeClass << CLASS_SHIFT) | ((long) (this.slabs.size() - 1) << SLAB_SHIFT) | this.slabPosition;
+      this.slabPosition += blockSize;
+    }
+
+    this.slab(address).put(offset(address), bytes);
+    return address;
+  }
+
+  /**
+   * @param length Length of a value in bytes
+   * @return Whether the value would be stored in a free block instead of new slab memory
+   */
+  boolean hasFreeBlock(int length) {
+    int sizeClass = sizeClass(length);
+    return sizeClass >= 0 && this.freeClass(sizeClass) >= 0;
+  }
+
+  /**
+   * Takes a free block of the size class, or of a larger class if it has none
+   *
+   * @return Address of the block, or -1 if none is free
+   */
+  private long reuse(int sizeClass) {
+    int freeClass = this.freeClass(sizeClass);
+    if (freeClass < 0) {
+      return -1;
+    }
+    this.freeBytes -= SIZE_CLASSES[freeClass];
+    return this.freeBlocks[freeClass][--this.freeCounts[freeClass]];
+  }
+
+  /**
+   * Finds the smallest class with a free block, from the size class up to twice its block size
+   * Falling back to larger blocks keeps freed memory in use when the mix of value lengths shifts
+   */
+  private int freeClass(int sizeClass) {
+    int maximumSize = SIZE_CLASSES[sizeClass] * 2;
+    for (int candidate = sizeClass; candidate < SIZE_CLASSES.length && SIZE_CLASSES[candidate] <= maximumSize;
+        candidate++) {
+      if (this.freeCounts[candidate] > 0) {
+        return candidate;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * @param address Address returned by {@link #allocate}
+   * @param length Length of the stored value in bytes
+   * @return The stored value
+   */
+  String read(long address, int length) {
+    byte[] bytes = new byte[length];
+    this.slab(address).get(offset(address), bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Returns a block to its size class
+   *
+   * @param address Address returned by {@link #allocate}
+   */
+  void free(long address) {
+    int sizeClass = (int) (address >>> CLASS_SHIFT);
+    long[] blocks = this.freeBlocks[sizeClass];
+    if (blocks == null) {
+      blocks = this.freeBlocks[sizeClass] = new long[16];
+    } else if (this.freeCounts[sizeClass] == blocks.length) {
+      blocks = this.freeBlocks[sizeClass] = Arrays.copyOf(blocks, blocks.length * 2);
+    }
+    blocks[this.freeCounts[sizeClass]++] = address;
+    this.freeBytes += SIZE_CLASSES[sizeClass];
+  }
+
+  /**
+   * Copies a value into another arena, the block in this arena is left untouched
+   *
+   * @param target The arena to copy into
+   * @param address Address returned by {@link #allocate}
+   * @param length Length of the stored value in bytes
+   * @return Address of the copy in the target arena, or -1 if no memory is left
+   */
+  long copyTo(PayloadArena target, long address, int length) {
+    byte[] bytes = new byte[length];
+    this.slab(address).get(offset(address), bytes);
+    return target.allocate(bytes);
+  }
+
+  /**
+   * @return Bytes held in free blocks, slab memory that is reserved but holds no value
+   */
+  long freeBytes() {
+    return this.freeBytes;
+  }
+
+  /**
+   * Drops every slab, their memory is released once the buffers are collected
+   */
+  void clear() {
+    this.slabs.clear();
+    Arrays.fill(this.freeBlocks, null);
+    Arrays.fill(this.freeCounts, 0);
+    this.slabPosition = SLAB_SIZE;
+    this.freeBytes = 0;
+  }
+
+  /**
+   * @return Size of the block a new value of the given length occupies, or -1 if it cannot be stored
+   */
+  static int blockSize(int length) {
+    int sizeClass = sizeClass(length);
+    return sizeClass < 0 ? -1 : SIZE_CLASSES[sizeClass];
+  }
+
+  /**
+   * @param address Address returned by {@link #allocate}
+   * @return Size of the block at the address
+   */
+  static int blockSizeAt(long address) {
+    return SIZE_CLASSES[(int) (address >>> CLASS_SHIFT)];
+  }
+
+  private ByteBuffer slab(long address) {
+    return this.slabs.get((int) ((address >>> SLAB_SHIFT) & SLAB_INDEX_MASK));
+  }
+
+  private static int offset(long address) {
+    return (int) (address & (SLAB_SIZE - 1));
+  }
+
+  private static int sizeClass(int length) {
+    int index = Arrays.binarySearch(SIZE_CLASSES, Math.max(1, length));
+    if (index < 0) {
+      index = -index - 1;
+    }
+    return index < SIZE_CLASSES.length ? index : -1;
+  }
+
+  private static int[] sizeClasses(int linearLimit, int maximum) {
+    List<Integer> sizes = new ArrayList<>();
+    for (int size = 16; size < linearLimit; size += 16) {
+      sizes.add(size);
+    }
+    for (int base = linearLimit; base < maximum; base <<= 1) {
+      for (int step = 0; step < 4; step++) {
+        sizes.add(base + step * (base >> 2));
+      }
+    }
+    sizes.add(maximum);
+    return sizes.stream().mapToInt(Integer::intValue).toArray();
+  }
+}
\ No newline at end of file
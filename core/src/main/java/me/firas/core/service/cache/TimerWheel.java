@@ -0,0 +1,152 @@
+package me.firas.core.service.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timer wheel holding cache entries by their expiry time
+ * Each level is a ring of buckets covering a coarser time span (about 1 second,
+ * 1 minute, 1 hour, 1.5 days), entries further out wait in an overflow bucket.
+ * Advancing the wheel only visits the buckets whose time has passed, so the cost
+ * depends on the number of entries becoming due, not on the size of the cache
+ */
+class TimerWheel {
+
+  private static final int[] BUCKETS = {64, 64, 32, 4, 1};
+  private static final long[] SPANS = {
+      1L << 10, // 1.02 seconds
+      1L << 16, // 1.09 minutes
+      1L << 22, // 1.17 hours
+      1L << 27, // 1.55 days
+      BUCKETS[3] * (1L << 27), // 6.2 days
+      BUCKETS[3] * (1L << 27), // 6.2 days
+  };
+  private static final long[] SHIFT = {
+      Long.numberOfTrailingZeros(SPANS[0]),
+      Long.numberOfTrailingZeros(SPANS[1]),
+      Long.numberOfTrailingZeros(SPANS[2]),
+      Long.numberOfTrailingZeros(SPANS[3]),
+      Long.numberOfTrailingZeros(SPANS[4]),
+  };
+
+  private final CacheNode[][] wheel;
+  private long time;
+
+  TimerWheel(long now) {
+    this.time = now;
+    this.wheel = new CacheNode[BUCKETS.length][];
+    for (int i = 0; i < this.wheel.length; i++) {
+      this.wheel[i] = new CacheNode[BUCKETS[i]];
+      for (int j = 0; j < this.wheel[i].length; j++) {
+        this.wheel[i][j] = CacheNode.sentinel();
+      }
+    }
+  }
+
+  /**
+   * Adds the node to the bucket for its expiry time, moving it if already scheduled
+   */
+  void schedule(CacheNode node) {
+    if (node.timerNext != null) {
+      unlink(node);
+    }
+    link(this.findBucket(node.expiresAt), node);
+  }
+
+  /**
+   * Removes the node from the wheel if it is scheduled
+   */
+  void deschedule(CacheNode node) {
+    if (node.timerNext != null) {
+      unlink(node);
+    }
+  }
+
+  /**
+   * Removes all nodes from the wheel
+   */
+  void clear() {
+    for (CacheNode[] level : this.wheel) {
+      for (CacheNode sentinel : level) {
+        sentinel.timerPrev = sentinel;
+        sentinel.timerNext = sentinel;
+      }
+    }
+  }
+
+  /**
+   * Advances the wheel to the given time
+   * Nodes that are due are handed to the callback, which must remove them from the cache,
+   * nodes of a passed bucket that are not yet due move down to a finer level
+   *
+   * @param now The current time
+   * @param expired Called for every node that has expired
+   */
+  void advance(long now, Consumer<CacheNode> expired) {
+    long previous = this.time;
+    this.time = now;
+
+    for (int i = 0; i < SHIFT.length; i++) {
+      long previousTicks = previous >>> SHIFT[i];
+      long currentTicks = now >>> SHIFT[i];
+      long delta = currentTicks - previousTicks;
+      if (delta <= 0) {
+        break;
+      }
+      this.expire(i, previousTicks, delta, expired);
+    }
+  }
+
+  private void expire(int level, long previousTicks, long delta, Consumer<CacheNode> expired) {
+    CacheNode[] buckets = this.wheel[level];
+    int mask = buckets.length - 1;
+    int start = (int) (previousTicks & mask);
+    int steps = (int) Math.min(delta + 1, buckets.length);
+
+    for (int i = start; i < start + steps; i++) {
+      CacheNode sentinel = buckets[i & mask];
+      CacheNode node = sentinel.timerNext;
+      sentinel.timerPrev = sentinel;
+      sentinel.timerNext = sentinel;
+
+      while (node != sentinel) {
+        CacheNode next = node.timerNext;
+        node.timerPrev = null;
+        node.timerNext = null;
+
+        if (node.expiresAt - this.time <= 0) {
+          expired.accept(node);
+        } else {
+          this.schedule(node);
+        }
+        node = next;
+      }
+    }
+  }
+
+  private CacheNode findBucket(long expiresAt) {
+    long duration = expiresAt - this.time;
+    int length = this.wheel.length - 1;
+    for (int i = 0; i < length; i++) {
+      if (duration < SPANS[i + 1]) {
+        long ticks = expiresAt >>> SHIFT[i];
+        int index = (int) (ticks & (this.wheel[i].length - 1));
+        return this.wheel[i][index];
+      }
+    }
+    return this.wheel[length][0];
+  }
+
+  private static void link(CacheNode sentinel, CacheNode node) {
+    node.timerPrev = sentinel.timerPrev;
+    node.timerNext = sentinel;
+    sentinel.timerPrev.timerNext = node;
+    sentinel.timerPrev = node;
+  }
+
+  private static void unlink(CacheNode node) {
+    node.timerPrev.timerNext = node.timerNext;
+    node.timerNext.timerPrev = node.timerPrev;
+    node.timerPrev = null;
+    node.timerNext = null;
+  }
+}
\ No newline at end of file
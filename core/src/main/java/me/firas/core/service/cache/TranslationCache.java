@@ -0,0 +1,444 @@
+package me.firas.core.service.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded in-memory cache for translations, weighted by the size of the stored strings
+ * Uses a W-TinyLFU policy: new entries enter a small LRU window, and only replace
+ * an entry of the main area if they were requested more often recently.
+ * This keeps frequent phrases cached while floods of one-off messages pass through
+ * Expired entries are still returned, marked stale, until they exceed the maximum staleness,
+ * then they are removed through a timer wheel, touching only the entries that are due
+ * Translations are kept off-heap as UTF-8 bytes, the heap only holds one small node
+ * of primitive fields per entry, so a large cache adds little work for the garbage collector
+ */
+public class TranslationCache {
+
+  // Approximate per-entry heap memory (node and its table slot), the value's off-heap block comes on top
+  private static final int ENTRY_OVERHEAD = 88;
+  // Average entry weight used to size the frequency sketch
+  private static final int AVERAGE_ENTRY_WEIGHT = 256;
+
+  // Share of the budget for the admission window and for the protected main segment
+  private static final double WINDOW_RATIO = 0.01;
+  private static final double PROTECTED_RATIO = 0.80;
+  // Share of the budget held in free blocks before the arena is compacted, so compaction does not run on every write
+  private static final double COMPACTION_HEADROOM = 0.10;
+  // Bytes of values moved out of the old arena per write while it is compacted
+  private static final int COMPACTION_STEP_BYTES = 256 * 1024;
+
+  private static final byte WINDOW = CacheNode.WINDOW;
+  private static final byte PROBATION = CacheNode.PROBATION;
+  private static final byte PROTECTED = CacheNode.PROTECTED;
+
+  private final LongSupplier maximumWeight;
+  private final long expireAfterWriteMs;
+  private final long maxStaleMs;
+  private final CoarseClock clock;
+  private final NodeTable data = new NodeTable();
+  private PayloadArena arena = new PayloadArena();
+  // Arena being emptied by the running compaction, null if none is running
+  private PayloadArena evacuated;
+  private int evacuatedNodes;
+  private int evacuationSlot;
+  private final FrequencySketch sketch = new FrequencySketch();
+  private final TimerWheel timerWheel;
+
+  // LRU queues, head is the least recently used entry
+  private final CacheNode window = CacheNode.sentinel();
+  private final CacheNode probation = CacheNode.sentinel();
+  private final CacheNode protectedQueue = CacheNode.sentinel();
+
+  private long windowWeight;
+  private long protectedWeight;
+  private long totalWeight;
+
+  /**
+   * @param maximumWeight Memory budget in bytes including the off-heap values, read on every write
+   *     so it can change at runtime
+   * @param expireAfterWriteMs Time after which an entry is returned as stale
+   * @param maxStaleMs Time after expiry during which a stale entry is still returned
+   * @param clock Clock for expiry times, ticked by the owner
+   */
+  public TranslationCache(LongSupplier maximumWeight, long expireAfterWriteMs, long maxStaleMs, CoarseClock clock) {
+    this.maximumWeight = maximumWeight;
+    this.expireAfterWriteMs = expireAfterWriteMs;
+    this.maxStaleMs = maxStaleMs;
+    this.clock = clock;
+    this.timerWheel = new TimerWheel(clock.millis());
+  }
+
+  /**
+   * Looks up a translation and records the access
+   *
+   * @param key The cache key
+   * @return The cached translation, or null if absent or stale for longer than the maximum staleness
+   */
+  public synchronized CachedTranslation get(CacheKey key) {
+    this.sketch.increment(key.hashCode());
+
+    CacheNode node = this.data.get(key.high(), key.low(), key.length());
+    if (node == null) {
+      return null;
+    }
+
+    // Nodes expire at the end of their stale period, so the timer wheel only removes unusable entries
+    long remaining = node.expiresAt - this.clock.millis();
+    if (remaining <= 0) {
+      this.remove(node);
+      return null;
+    }
+
+    this.onAccess(node);
+    return new CachedTranslation(this.arenaOf(node).read(node.valueAddress, node.valueLength),
+        remaining <= this.maxStaleMs);
+  }
+
+  /**
+   * Stores a translation, evicting other entries if the budget is exceeded
+   *
+   * @param key The cache key
+   * @param value The translation
+   */
+  public synchronized void put(CacheKey key, String value) {
+    this.put(key, value, this.clock.millis());
+  }
+
+  /**
+   * Stores a translation that was written earlier, e.g. one read from disk
+   * It expires as if it had been cached at that time, an already expired one is kept as stale
+   * for the maximum staleness, so it is served while it is refreshed
+   *
+   * @param key The cache key
+   * @param value The translation
+   * @param writtenAt Time the translation was received
+   */
+  public synchronized void put(CacheKey key, String value, long writtenAt) {
+    this.sketch.increment(key.hashCode());
+
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    this.makeRoom(bytes.length);
+    CacheNode node = this.data.get(key.high(), key.low(), key.length());
+    long address = this.arena.allocate(bytes);
+    if (address < 0) {
+      // Too large for the arena or out of direct memory, an outdated value must not stay behind
+      if (node != null) {
+        this.remove(node);
+      }
+      return;
+    }
+
+    int weight = ENTRY_OVERHEAD + PayloadArena.blockSizeAt(address);
+    if (node != null) {
+      this.freeValue(node);
+      this.adjustWeight(node, weight - node.weight);
+      node.valueAddress = address;
+      node.valueLength = bytes.length;
+      this.onAccess(node);
+    } else {
+      node = new CacheNode(key.high(), key.low(), key.length());
+      node.valueAddress = address;
+      node.valueLength = bytes.length;
+      node.weight = weight;
+      this.data.add(node);
+      node.queue = WINDOW;
+      linkLast(this.window, node);
+      this.windowWeight += weight;
+      this.totalWeight += weight;
+    }
+    node.expiresAt = Math.max(writtenAt + this.expireAfterWriteMs, this.clock.millis()) + this.maxStaleMs;
+    this.timerWheel.schedule(node);
+
+    this.evict();
+    this.compactStep();
+  }
+
+  /**
+   * Removes a translation
+   *
+   * @param key The cache key
+   */
+  public synchronized void invalidate(CacheKey key) {
+    CacheNode node = this.data.get(key.high(), key.low(), key.length());
+    if (node != null) {
+      this.remove(node);
+    }
+  }
+
+  /**
+   * Serves a stale translation as fresh for a while, e.g. after refreshing it failed,
+   * so hits on it do not start another refresh right away
+   *
+   * @param key The cache key
+   * @param delayMs Time until the translation is stale again
+   */
+  public synchronized void deferRefresh(CacheKey key, long delayMs) {
+    CacheNode node = this.data.get(key.high(), key.low(), key.length());
+    if (node == null) {
+      return;
+    }
+    node.expiresAt = Math.max(node.expiresAt, this.clock.millis() + delayMs + this.maxStaleMs);
+    this.timerWheel.schedule(node);
+  }
+
+  /**
+   * Removes all entries
+   */
+  public synchronized void clear() {
+    this.data.clear();
+    this.arena.clear();
+    this.evacuated = null;
+    this.evacuatedNodes = 0;
+    for (CacheNode queue : new CacheNode[]{this.window, this.probation, this.protectedQueue}) {
+      queue.next = queue;
+      queue.prev = queue;
+    }
+    this.timerWheel.clear();
+    this.windowWeight = 0;
+    this.protectedWeight = 0;
+    this.totalWeight = 0;
+  }
+
+  /**
+   * Removes the entries that expired since the last call
+   * Only the timer wheel buckets that became due are visited
+   */
+  public synchronized void cleanExpired() {
+    this.timerWheel.advance(this.clock.millis(), this::remove);
+  }
+
+  /**
+   * @return Approximate memory used by the cached entries in bytes, on and off the heap,
+   *     including freed blocks the arena keeps for reuse
+   */
+  public synchronized long weightedSize() {
+    return this.totalWeight + this.arena.freeBytes();
+  }
+
+  /**
+   * @return Number of cached entries
+   */
+  public synchronized int size() {
+    return this.data.size();
+  }
+
+  private void onAccess(CacheNode node) {
+    switch (node.queue) {
+      case WINDOW -> moveToLast(this.window, node);
+      case PROBATION -> {
+        // A second hit promotes the entry into the protected segment
+        unlinkNode(node);
+        node.queue = PROTECTED;
+        linkLast(this.protectedQueue, node);
+        this.protectedWeight += node.weight;
+        this.demoteProtected();
+      }
+      default -> moveToLast(this.protectedQueue, node);
+    }
+  }
+
+  private void evict() {
+    long maximum = Math.max(0, this.maximumWeight.getAsLong());
+    this.sketch.ensureCapacity(maximum / AVERAGE_ENTRY_WEIGHT);
+
+    // Entries leaving the window become admission candidates at the tail of probation
+    long windowMaximum = (long) (maximum * WINDOW_RATIO);
+    while (this.windowWeight > windowMaximum && this.window.next != this.window) {
+      CacheNode candidate = this.window.next;
+      unlinkNode(candidate);
+      this.windowWeight -= candidate.weight;
+      candidate.queue = PROBATION;
+      linkLast(this.probation, candidate);
+    }
+
+    while (this.totalWeight > maximum) {
+      if (!this.evictOne()) {
+        return;
+      }
+    }
+
+    this.demoteProtected();
+  }
+
+  /**
+   * Evicts entries until a value of the given length fits into a free block, or new slab memory fits the budget
+   * Free blocks are only reused by values of a similar size, so the slabs would otherwise keep growing
+   * past the budget while the live values fit. Once the free blocks take up the compaction headroom,
+   * a compaction moves the live values into fresh slabs instead
+   */
+  private void makeRoom(int length) {
+    int blockSize = PayloadArena.blockSize(length);
+    if (blockSize < 0) {
+      return;
+    }
+
+    long maximum = Math.max(0, this.maximumWeight.getAsLong());
+    long compactionThreshold = (long) (maximum * (1 - COMPACTION_HEADROOM));
+    while (!this.arena.hasFreeBlock(length)
+        && this.totalWeight + this.arena.freeBytes() + ENTRY_OVERHEAD + blockSize > maximum) {
+      if (this.totalWeight <= compactionThreshold || !this.evictOne()) {
+        this.startCompaction();
+        return;
+      }
+    }
+  }
+
+  /**
+   * @return Whether an entry was evicted, false if the cache is empty
+   */
+  private boolean evictOne() {
+    CacheNode victim = this.probation.next;
+    CacheNode candidate = this.probation.prev;
+    if (victim == this.probation) {
+      // Probation is empty, fall back to the protected segment and the window
+      victim = this.protectedQueue.next != this.protectedQueue ? this.protectedQueue.next : this.window.next;
+      if (victim == this.window) {
+        return false;
+      }
+      this.remove(victim);
+      return true;
+    }
+
+    // Keep whichever of the two was requested more often recently
+    if (victim != candidate
+        && this.sketch.frequency(candidate.keyHash()) <= this.sketch.frequency(victim.keyHash())) {
+      this.remove(candidate);
+    } else {
+      this.remove(victim);
+    }
+    return true;
+  }
+
+  /**
+   * Starts moving the live values into a fresh arena, the old slabs and their free blocks are
+   * dropped once it is empty. New values go to the fresh arena right away, the old values are
+   * moved a step per write, so no single write holds the lock for a copy of the whole cache
+   */
+  private void startCompaction() {
+    if (this.evacuated != null || this.data.size() == 0) {
+      return;
+    }
+
+    this.evacuated = this.arena;
+    this.evacuatedNodes = this.data.size();
+    this.evacuationSlot = 0;
+    this.arena = new PayloadArena();
+    for (CacheNode queue : new CacheNode[]{this.window, this.probation, this.protectedQueue}) {
+      for (CacheNode node = queue.next; node != queue; node = node.next) {
+        node.evacuating = true;
+      }
+    }
+  }
+
+  /**
+   * Moves up to {@link #COMPACTION_STEP_BYTES} of values out of the arena being compacted,
+   * visiting at most one table's worth of slots
+   * Walks the node table, a walk that missed nodes moved by deletions or resizing starts over
+   */
+  private void compactStep() {
+    int moved = 0;
+    int visited = 0;
+    while (this.evacuated != null && moved < COMPACTION_STEP_BYTES && visited++ < this.data.capacity()) {
+      if (this.evacuatedNodes == 0) {
+        this.evacuated = null;
+        return;
+      }
+      if (this.evacuationSlot >= this.data.capacity()) {
+        this.evacuationSlot = 0;
+      }
+
+      CacheNode node = this.data.at(this.evacuationSlot++);
+      if (node == null || !node.evacuating) {
+        continue;
+      }
+
+      long address = this.evacuated.copyTo(this.arena, node.valueAddress, node.valueLength);
+      if (address < 0) {
+        // Out of direct memory, the value is dropped rather than keeping the old slabs
+        this.remove(node);
+        continue;
+      }
+      node.valueAddress = address;
+      node.evacuating = false;
+      this.evacuatedNodes--;
+      // Values that sat in a larger free block get a block of their own size
+      this.adjustWeight(node, ENTRY_OVERHEAD + PayloadArena.blockSizeAt(address) - node.weight);
+      moved += node.valueLength;
+    }
+  }
+
+  private PayloadArena arenaOf(CacheNode node) {
+    return node.evacuating ? this.evacuated : this.arena;
+  }
+
+  /**
+   * Returns the node's block, blocks of the arena being compacted go away with it
+   */
+  private void freeValue(CacheNode node) {
+    if (node.evacuating) {
+      node.evacuating = false;
+      this.evacuatedNodes--;
+    } else {
+      this.arena.free(node.valueAddress);
+    }
+  }
+
+  private void demoteProtected() {
+    long maximum = Math.max(0, this.maximumWeight.getAsLong());
+    long protectedMaximum = (long) ((maximum - maximum * WINDOW_RATIO) * PROTECTED_RATIO);
+    while (this.protectedWeight > protectedMaximum && this.protectedQueue.next != this.protectedQueue) {
+      CacheNode demoted = this.protectedQueue.next;
+      unlinkNode(demoted);
+      this.protectedWeight -= demoted.weight;
+      demoted.queue = PROBATION;
+      linkLast(this.probation, demoted);
+    }
+  }
+
+  private void adjustWeight(CacheNode node, int delta) {
+    node.weight += delta;
+    this.totalWeight += delta;
+    if (node.queue == WINDOW) {
+      this.windowWeight += delta;
+    } else if (node.queue == PROTECTED) {
+      this.protectedWeight += delta;
+    }
+  }
+
+  private void remove(CacheNode node) {
+    this.data.remove(node);
+    this.freeValue(node);
+    this.timerWheel.deschedule(node);
+    this.unlink(node);
+  }
+
+  private void unlink(CacheNode node) {
+    if (node.queue == WINDOW) {
+      this.windowWeight -= node.weight;
+    } else if (node.queue == PROTECTED) {
+      this.protectedWeight -= node.weight;
+    }
+    this.totalWeight -= node.weight;
+    unlinkNode(node);
+  }
+
+  private static void linkLast(CacheNode queue, CacheNode node) {
+    node.prev = queue.prev;
+    node.next = queue;
+    queue.prev.next = node;
+    queue.prev = node;
+  }
+
+  private static void moveToLast(CacheNode queue, CacheNode node) {
+    unlinkNode(node);
+    linkLast(queue, node);
+  }
+
+  private static void unlinkNode(CacheNode node) {
+    node.prev.next = node.next;
+    node.next.prev = node.prev;
+    node.prev = null;
+    node.next = null;
+  }
+}
\ No newline at end of file
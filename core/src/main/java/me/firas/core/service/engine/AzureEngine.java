@@ -0,0 +1,143 @@
+package me.firas.core.service.engine;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import me.firas.core.TranslatorConfiguration;
+import me.firas.core.util.JsonStreamUtil;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpRequest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Azure Cognitive Services Translator (Official API)
+ * Uses Microsoft Azure Translator API with authentication key
+ * Every text becomes one element of the request array, and every target language
+ * is requested with its own "to" parameter
+ */
+public class AzureEngine extends HttpTranslationEngine {
+
+  private static final String API_VERSION = "3.0";
+
+  // Azure request limits (100 array elements, 10000 characters counted once per target language)
+  private static final EngineCapabilities CAPABILITIES = new EngineCapabilities(100, 10000, true, true);
+
+  private final TranslatorConfiguration configuration;
+
+  public AzureEngine(EngineClient client, TranslatorConfiguration configuration) {
+    super(client);
+    this.configuration = configuration;
+  }
+
+  @Override
+  public EngineCapabilities capabilities() {
+    return CAPABILITIES;
+  }
+
+  @Override
+  protected String displayName() {
+    return "Azure Translator API";
+  }
+
+  @Override
+  public String configurationError() {
+    if (!isSet(this.configuration.azureApiKey().get())) {
+      return "Azure API key is not configured. Please add your API key in settings.";
+    }
+    return null;
+  }
+
+  @Override
+  public CompletableFuture<List<List<String>>> translate(List<String> texts, String sourceLang,
+      List<String> targetLangs) {
+    String error = this.configurationError();
+    if (error != null) {
+      throw new RuntimeException(error);
+    }
+
+    // Get API credentials from configuration
+    String apiKey = this.configuration.azureApiKey().get();
+    String region = this.configuration.azureRegion().get();
+    String endpoint = this.configuration.azureEndpoint().get();
+
+    // Build API URL
+    StringBuilder urlBuilder = new StringBuilder(endpoint);
+    urlBuilder.append("/translate?api-version=").append(API_VERSION);
+    for (String targetLang : targetLangs) {
+      urlBuilder.append("&to=").append(targetLang);
+    }
+
+    // Add source language if not auto-detect
+    if (!sourceLang.equals("auto")) {
+      urlBuilder.append("&from=").append(sourceLang);
+    }
+
+    // Build request body
+    JsonArray requestBody = new JsonArray();
+    for (String text : texts) {
+      JsonObject textObject = new JsonObject();
+      textObject.addProperty("Text", text);
+      requestBody.add(textObject);
+    }
+
+    // Make API request
+    HttpRequest request = this.client.postJson(urlBuilder.toString(), requestBody.toString())
+        .header("Ocp-Apim-Subscription-Key", apiKey)
+        .header("Ocp-Apim-Subscription-Region", region)
+        .header("X-ClientTraceId", UUID.randomUUID().toString())
+        .build();
+
+    return this.exchange(request, response -> {
+      this.ensureOk(response);
+
+      // Parse Azure response: [{"translations": [{"text": "...", "to": "..."}, ...]}, ...]
+      List<List<String>> results = readTranslations(response.body());
+
+      if (results.isEmpty()) {
+        throw new RuntimeException("Azure Translator API returned empty translation");
+      }
+
+      // Translations of each element are returned in the order of the "to" parameters
+      for (List<String> translations : results) {
+        if (translations.size() != targetLangs.size() || translations.contains(null)) {
+          throw new RuntimeException("Azure Translator API returned no translations");
+        }
+      }
+
+      return results;
+    });
+  }
+
+  /**
+   * Streams the translated texts out of an Azure response body
+   * One list per request element, holding one text per target language
+   */
+  private static List<List<String>> readTranslations(byte[] body) {
+    try (JsonReader reader = JsonStreamUtil.open(body)) {
+      List<List<String>> results = new ArrayList<>();
+      reader.beginArray();
+      while (reader.hasNext()) {
+        reader.beginObject();
+        List<String> translations = List.of();
+        while (reader.hasNext()) {
+          if (reader.nextName().equals("translations")) {
+            translations = JsonStreamUtil.readFieldOfEach(reader, "text");
+          } else {
+            reader.skipValue();
+          }
+        }
+        reader.endObject();
+        results.add(translations);
+      }
+      reader.endArray();
+      return results;
+    } catch (IOException e) {
+      throw new UncheckedIOException("Azure Translator API returned invalid response", e);
+    }
+  }
+}
\ No newline at end of file
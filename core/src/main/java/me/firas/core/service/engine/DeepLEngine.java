@@ -0,0 +1,146 @@
+package me.firas.core.service.engine;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import me.firas.core.TranslatorConfiguration;
+import me.firas.core.util.JsonStreamUtil;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpRequest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * DeepL Translate (Official API)
+ * Uses DeepL API with authentication key, accepts a "text" array and returns
+ * the translations in the same order
+ */
+public class DeepLEngine extends HttpTranslationEngine {
+
+  // DeepL API endpoints
+  private static final String FREE_API = "https://api-free.deepl.com/v2/translate";
+  private static final String PRO_API = "https://api.deepl.com/v2/translate";
+
+  // DeepL request limits (50 texts, 128 KiB request body)
+  private static final EngineCapabilities CAPABILITIES = new EngineCapabilities(50, 30000, false, true);
+
+  private final TranslatorConfiguration configuration;
+
+  public DeepLEngine(EngineClient client, TranslatorConfiguration configuration) {
+    super(client);
+    this.configuration = configuration;
+  }
+
+  @Override
+  public EngineCapabilities capabilities() {
+    return CAPABILITIES;
+  }
+
+  @Override
+  protected String displayName() {
+    return "DeepL API";
+  }
+
+  @Override
+  public String configurationError() {
+    if (!isSet(this.configuration.deeplApiKey().get())) {
+      return "DeepL API key is not configured. Please add your API key in settings.";
+    }
+    return null;
+  }
+
+  @Override
+  public CompletableFuture<List<List<String>>> translate(List<String> texts, String sourceLang,
+      List<String> targetLangs) {
+    String error = this.configurationError();
+    if (error != null) {
+      throw new RuntimeException(error);
+    }
+    String apiKey = this.configuration.deeplApiKey().get();
+
+    // Determine API endpoint (free or pro)
+    String apiEndpoint = this.configuration.deeplUseFreeApi().get() ? FREE_API : PRO_API;
+
+    // Convert language codes to DeepL format
+    String deeplSourceLang = convertToDeeplLangCode(sourceLang);
+    String deeplTargetLang = convertToDeeplLangCode(targetLangs.get(0));
+
+    // Build request body
+    JsonObject requestBody = new JsonObject();
+    JsonArray textArray = new JsonArray();
+    for (String text : texts) {
+      textArray.add(text);
+    }
+    requestBody.add("text", textArray);
+    requestBody.addProperty("target_lang", deeplTargetLang);
+
+    // Only add source_lang if not auto-detect
+    if (!deeplSourceLang.equals("auto")) {
+      requestBody.addProperty("source_lang", deeplSourceLang);
+    }
+
+    // Make API request
+    HttpRequest request = this.client.postJson(apiEndpoint, requestBody.toString())
+        .header("Authorization", "DeepL-Auth-Key " + apiKey)
+        .build();
+
+    return this.exchange(request, response -> {
+      this.ensureOk(response);
+
+      // Parse DeepL response: {"translations": [{"text": "..."}, ...]}
+      List<String> translations = readTranslations(response.body());
+
+      if (translations.isEmpty() || translations.contains(null)) {
+        throw new RuntimeException("DeepL API returned empty translation");
+      }
+
+      List<List<String>> results = new ArrayList<>(translations.size());
+      for (String translation : translations) {
+        results.add(List.of(translation));
+      }
+      return results;
+    });
+  }
+
+  /**
+   * Streams the "text" fields out of a DeepL response body
+   * Stops reading as soon as the translations array is done
+   */
+  private static List<String> readTranslations(byte[] body) {
+    try (JsonReader reader = JsonStreamUtil.open(body)) {
+      reader.beginObject();
+      if (!JsonStreamUtil.seekField(reader, "translations")) {
+        return List.of();
+      }
+      return JsonStreamUtil.readFieldOfEach(reader, "text");
+    } catch (IOException e) {
+      throw new UncheckedIOException("DeepL API returned invalid response", e);
+    }
+  }
+
+  /**
+   * Converts language codes to DeepL format
+   * DeepL uses uppercase 2-letter codes (EN, DE, FR, etc.)
+   */
+  private static String convertToDeeplLangCode(String langCode) {
+    // Handle special cases
+    if (langCode.equals("auto")) {
+      return "auto";
+    }
+
+    // DeepL uses specific codes for some languages
+    switch (langCode.toLowerCase()) {
+      case "en":
+        return "EN";
+      case "zh":
+        return "ZH";
+      case "pt":
+        return "PT";
+      default:
+        return langCode.toUpperCase();
+    }
+  }
+}
\ No newline at end of file
@@ -0,0 +1,19 @@
+package me.firas.core.service.engine;
+
+/**
+ * Limits and features of a translation engine
+ * The service sizes batches and plans requests from these values instead of
+ * assuming the lowest common denominator of all engines
+ *
+ * @param maxBatchSize Maximum number of texts in one request, 1 if the engine cannot batch
+ * @param maxCharacters Maximum number of characters in one request, counted once per target language
+ * @param multiTarget Whether one request can translate into several target languages
+ * @param freeAutoDetect Whether source language detection comes with the translation at no extra cost
+ */
+public record EngineCapabilities(
+    int maxBatchSize,
+    int maxCharacters,
+    boolean multiTarget,
+    boolean freeAutoDetect
+) {
+}
\ No newline at end of file
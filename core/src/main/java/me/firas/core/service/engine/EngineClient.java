@@ -0,0 +1,172 @@
+package me.firas.core.service.engine;
+
+import me.firas.core.service.transport.ConcurrencyLimiter;
+import me.firas.core.service.transport.HttpTransport;
+import me.firas.core.service.transport.LatencyTracker;
+import me.firas.core.service.transport.RateLimiter;
+import me.firas.core.service.transport.RequestHedger;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Sends the requests of one engine over the shared transport
+ * Paces them with the engine's rate limiter, caps how many are open at once,
+ * derives timeouts from its observed latency and hedges requests that take longer than usual
+ */
+public class EngineClient {
+
+  // Request timeouts follow the engine's p99 latency times a safety factor, clamped
+  // to these bounds, until enough requests have been seen the maximum is used
+  private static final double TIMEOUT_PERCENTILE = 0.99;
+  private static final double TIMEOUT_FACTOR = 3;
+  private static final int MIN_REQUEST_TIMEOUT_MS = 1500;
+  private static final int MAX_REQUEST_TIMEOUT_MS = 10000;
+
+  // Times a throttled request is queued again before the 429 is reported
+  private static final int MAX_THROTTLED_RETRIES = 3;
+
+  // Hedge requests slower than the engine's p95
+  private static final double HEDGE_PERCENTILE = 0.95;
+  private static final long MIN_HEDGE_DELAY_MS = 50;
+
+  private final HttpTransport transport;
+  private final RateLimiter rateLimiter;
+  private final ConcurrencyLimiter concurrencyLimiter;
+  private final RequestHedger hedger;
+  private final BooleanSupplier hedgingEnabled;
+  private final LatencyTracker latencyTracker = new LatencyTracker();
+
+  /**
+   * @param transport The shared transport
+   * @param rateLimiter Rate limiter of this engine
+   * @param concurrencyLimiter Caps the requests this engine has open at once
+   * @param hedger Hedger holding the shared hedge budget
+   * @param hedgingEnabled Whether slow requests are hedged, read for every request
+   */
+  public EngineClient(HttpTransport transport, RateLimiter rateLimiter, ConcurrencyLimiter concurrencyLimiter,
+      RequestHedger hedger, BooleanSupplier hedgingEnabled) {
+    this.transport = transport;
+    this.rateLimiter = rateLimiter;
+    this.concurrencyLimiter = concurrencyLimiter;
+    this.hedger = hedger;
+    this.hedgingEnabled = hedgingEnabled;
+  }
+
+  /**
+   * Creates a GET request with the engine's current timeout
+   *
+   * @param url The request url
+   * @return Request builder, headers can still be added
+   */
+  public HttpRequest.Builder get(String url) {
+    return this.transport.get(url, this.requestTimeoutMs());
+  }
+
+  /**
+   * Creates a JSON POST request with the engine's current timeout
+   *
+   * @param url The request url
+   * @param jsonBody The JSON body to send
+   * @return Request builder, headers can still be added
+   */
+  public HttpRequest.Builder postJson(String url, String jsonBody) {
+    return this.transport.postJson(url, jsonBody, this.requestTimeoutMs());
+  }
+
+  /**
+   * Sends a request once the rate limiter allows it
+   * Throttled requests are queued again after the pause the engine asked for,
+   * only repeated throttling is reported to the caller
+   * With hedging enabled, a request that is slower than usual is sent a second time
+   * and the first response wins
+   *
+   * @param request The request to send
+   * @return Future completing with the response
+   */
+  public CompletableFuture<HttpResponse<byte[]>> send(HttpRequest request) {
+    // Requests still running the engine's p95 after they were sent get a duplicate, within the hedge budget
+    long hedgeDelayMs = -1;
+    if (this.hedgingEnabled.getAsBoolean()) {
+      long p95 = this.latencyTracker.percentile(HEDGE_PERCENTILE);
+      hedgeDelayMs = p95 < 0 ? -1 : Math.max(p95, MIN_HEDGE_DELAY_MS);
+    }
+
+    return this.hedger.execute(onSent -> {
+      CompletableFuture<HttpResponse<byte[]>> result = new CompletableFuture<>();
+      // Every attempt holds a permit until it has finished, including its throttled retries
+      CompletableFuture<Void> permit = this.concurrencyLimiter.acquire();
+      result.whenComplete((response, throwable) -> permit.cancel(false));
+      permit.thenRun(() -> {
+        result.whenComplete((response, throwable) -> this.concurrencyLimiter.release());
+        if (!result.isDone()) {
+          this.send(request, 0, result, onSent);
+        }
+      });
+      return result;
+    }, hedgeDelayMs);
+  }
+
+  /**
+   * Sends one attempt of a request and completes the result with its response
+   * Cancelling the result gives up the rate limiter slot or aborts the exchange
+   *
+   * @param onSent Run once the request is handed to the transport
+   */
+  private void send(HttpRequest request, int attempt, CompletableFuture<HttpResponse<byte[]>> result,
+      Runnable onSent) {
+    CompletableFuture<Void> permit = this.rateLimiter.acquire();
+    result.whenComplete((response, throwable) -> permit.cancel(false));
+
+    permit.thenRun(() -> {
+      if (result.isDone()) {
+        return;
+      }
+
+      long startNanos = System.nanoTime();
+      CompletableFuture<HttpResponse<byte[]>> exchange = this.transport.sendAsync(request);
+      result.whenComplete((response, throwable) -> {
+        if (result.isCancelled()) {
+          exchange.cancel(true);
+        }
+      });
+
+      exchange.whenComplete((response, throwable) -> {
+        if (exchange.isCancelled()) {
+          return;
+        }
+        if (throwable != null) {
+          // Timeouts count too, the tail is what hedging is meant to cut
+          this.latencyTracker.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+          result.completeExceptionally(throwable);
+          return;
+        }
+
+        if (this.rateLimiter.onResponse(response.statusCode(), response.headers())
+            && attempt < MAX_THROTTLED_RETRIES) {
+          this.send(request, attempt + 1, result, onSent);
+          return;
+        }
+        this.latencyTracker.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        result.complete(response);
+      });
+      onSent.run();
+    });
+  }
+
+  /**
+   * Derives the request timeout from the engine's recent response times
+   * Slow but healthy engines get more time, while fast engines fail quickly when they stall
+   */
+  private int requestTimeoutMs() {
+    long p99 = this.latencyTracker.percentile(TIMEOUT_PERCENTILE);
+    if (p99 < 0) {
+      return MAX_REQUEST_TIMEOUT_MS;
+    }
+    long timeout = (long) (p99 * TIMEOUT_FACTOR);
+    return (int) Math.max(MIN_REQUEST_TIMEOUT_MS, Math.min(timeout, MAX_REQUEST_TIMEOUT_MS));
+  }
+}
\ No newline at end of file
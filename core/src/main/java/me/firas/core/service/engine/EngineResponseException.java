@@ -0,0 +1,31 @@
+package me.firas.core.service.engine;
+
+/**
+ * Thrown when an engine answers with an HTTP status other than 200
+ */
+public class EngineResponseException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  private final int statusCode;
+
+  public EngineResponseException(String message, int statusCode) {
+    super(message);
+    this.statusCode = statusCode;
+  }
+
+  public int statusCode() {
+    return this.statusCode;
+  }
+
+  /**
+   * Whether the engine refused the request because of its content, e.g. a text that is too long
+   * or an unsupported language pair. Authentication, quota and rate limit errors say nothing
+   * about the text, neither do server errors
+   *
+   * @return Whether the same request would fail again
+   */
+  public boolean isTextRejection() {
+    return this.statusCode == 400 || this.statusCode == 413 || this.statusCode == 414 || this.statusCode == 422;
+  }
+}
\ No newline at end of file
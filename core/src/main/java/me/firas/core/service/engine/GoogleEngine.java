@@ -0,0 +1,75 @@
+package me.firas.core.service.engine;
+
+import com.google.gson.stream.JsonReader;
+import me.firas.core.util.JsonStreamUtil;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Google Translate (Unofficial API)
+ * Uses free Google Translate API endpoint, one text and target language per request
+ */
+public class GoogleEngine extends HttpTranslationEngine {
+
+  private static final String API = "https://translate.googleapis.com/translate_a/single";
+
+  // The text travels in the query string, keep the url within common length limits
+  private static final EngineCapabilities CAPABILITIES = new EngineCapabilities(1, 5000, false, true);
+
+  public GoogleEngine(EngineClient client) {
+    super(client);
+  }
+
+  @Override
+  public EngineCapabilities capabilities() {
+    return CAPABILITIES;
+  }
+
+  @Override
+  protected String displayName() {
+    return "Google Translate API";
+  }
+
+  @Override
+  public CompletableFuture<List<List<String>>> translate(List<String> texts, String sourceLang,
+      List<String> targetLangs) {
+    String encodedText = URLEncoder.encode(texts.get(0), StandardCharsets.UTF_8);
+    String urlString = API + "?client=gtx&sl=" + sourceLang + "&tl=" + targetLangs.get(0) + "&dt=t&q=" + encodedText;
+
+    HttpRequest request = this.client.get(urlString).build();
+
+    return this.exchange(request, response -> {
+      this.ensureOk(response);
+
+      // Parse Google Translate response: [[["translated", "original", ...], ...], ...]
+      // Only the first element holds the sentences, the rest is never read
+      try (JsonReader reader = JsonStreamUtil.open(response.body())) {
+        reader.beginArray();
+        reader.beginArray();
+
+        StringBuilder translatedText = new StringBuilder();
+        while (reader.hasNext()) {
+          reader.beginArray();
+          String sentence = JsonStreamUtil.nextStringOrNull(reader);
+          if (sentence != null) {
+            translatedText.append(sentence);
+          }
+          while (reader.hasNext()) {
+            reader.skipValue();
+          }
+          reader.endArray();
+        }
+
+        return List.of(List.of(translatedText.toString()));
+      } catch (IOException e) {
+        throw new UncheckedIOException("Google Translate API returned invalid response", e);
+      }
+    });
+  }
+}
\ No newline at end of file
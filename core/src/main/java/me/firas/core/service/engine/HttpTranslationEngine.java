@@ -0,0 +1,67 @@
+package me.firas.core.service.engine;
+
+import me.firas.core.util.FutureUtil;
+
+import java.net.HttpURLConnection;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Base for engines reached over HTTP, holds the client and the shared error handling
+ */
+public abstract class HttpTranslationEngine implements TranslationEngine {
+
+  // Longest part of an error body included in the error message
+  private static final int MAX_ERROR_BODY_LENGTH = 300;
+
+  protected final EngineClient client;
+
+  protected HttpTranslationEngine(EngineClient client) {
+    this.client = client;
+  }
+
+  /**
+   * @return Name used in error messages
+   */
+  protected abstract String displayName();
+
+  /**
+   * Sends the request and parses the response
+   * Cancelling the returned future aborts the HTTP exchange
+   *
+   * @param request The request to send
+   * @param parser Turns the response into the engine result
+   * @return Future completing with the parsed result
+   */
+  protected <T> CompletableFuture<T> exchange(HttpRequest request, Function<HttpResponse<byte[]>, T> parser) {
+    CompletableFuture<HttpResponse<byte[]>> response = this.client.send(request);
+    return FutureUtil.propagateCancel(response.thenApply(parser), response);
+  }
+
+  /**
+   * Throws if the engine did not answer with HTTP 200
+   *
+   * @param response The engine response
+   */
+  protected void ensureOk(HttpResponse<byte[]> response) {
+    int responseCode = response.statusCode();
+    if (responseCode != HttpURLConnection.HTTP_OK) {
+      String body = new String(response.body(), StandardCharsets.UTF_8);
+      if (body.length() > MAX_ERROR_BODY_LENGTH) {
+        body = body.substring(0, MAX_ERROR_BODY_LENGTH) + "...";
+      }
+      throw new EngineResponseException(this.displayName() + " error (HTTP " + responseCode + "): " + body,
+          responseCode);
+    }
+  }
+
+  /**
+   * @return Whether the setting holds a value other than whitespace
+   */
+  protected static boolean isSet(String value) {
+    return value != null && !value.trim().isEmpty();
+  }
+}
\ No newline at end of file
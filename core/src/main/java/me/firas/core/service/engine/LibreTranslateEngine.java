@@ -0,0 +1,134 @@
+package me.firas.core.service.engine;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import me.firas.core.TranslatorConfiguration;
+import me.firas.core.util.JsonStreamUtil;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * LibreTranslate (Open Source API)
+ * Uses the configured LibreTranslate instance, the public one at https://libretranslate.com
+ * or a self-hosted server. Texts are sent as a "q" array, so concurrent requests share one call
+ */
+public class LibreTranslateEngine extends HttpTranslationEngine {
+
+  private static final String PUBLIC_HOST = "libretranslate.com";
+  private static final String DEFAULT_ENDPOINT = "https://" + PUBLIC_HOST;
+
+  // Instances set their own character limit, keep batches small enough for the public one.
+  // Detecting the source language runs a separate model on the server
+  private static final EngineCapabilities CAPABILITIES = new EngineCapabilities(50, 5000, false, false);
+
+  private final TranslatorConfiguration configuration;
+
+  public LibreTranslateEngine(EngineClient client, TranslatorConfiguration configuration) {
+    super(client);
+    this.configuration = configuration;
+  }
+
+  @Override
+  public EngineCapabilities capabilities() {
+    return CAPABILITIES;
+  }
+
+  @Override
+  protected String displayName() {
+    return "LibreTranslate API";
+  }
+
+  @Override
+  public String configurationError() {
+    // Only the public instance requires a key, self-hosted servers usually run without one
+    if (!isSet(this.configuration.libreTranslateApiKey().get()) && PUBLIC_HOST.equals(this.host())) {
+      return "LibreTranslate API key is not configured. Please add your API key in settings.";
+    }
+    return null;
+  }
+
+  @Override
+  public CompletableFuture<List<List<String>>> translate(List<String> texts, String sourceLang,
+      List<String> targetLangs) {
+    String error = this.configurationError();
+    if (error != null) {
+      throw new RuntimeException(error);
+    }
+
+    // Build request body
+    JsonObject requestBody = new JsonObject();
+    JsonArray textArray = new JsonArray();
+    for (String text : texts) {
+      textArray.add(text);
+    }
+    requestBody.add("q", textArray);
+    requestBody.addProperty("source", sourceLang);
+    requestBody.addProperty("target", targetLangs.get(0));
+    requestBody.addProperty("format", "text");
+
+    String apiKey = this.configuration.libreTranslateApiKey().get();
+    if (isSet(apiKey)) {
+      requestBody.addProperty("api_key", apiKey.trim());
+    }
+
+    HttpRequest request = this.client.postJson(this.translateUrl(), requestBody.toString()).build();
+
+    return this.exchange(request, response -> {
+      this.ensureOk(response);
+
+      // Parse LibreTranslate response: {"translatedText": ["...", ...]}
+      List<String> translations;
+      try (JsonReader reader = JsonStreamUtil.open(response.body())) {
+        reader.beginObject();
+        if (!JsonStreamUtil.seekField(reader, "translatedText")) {
+          throw new RuntimeException("LibreTranslate API returned invalid response");
+        }
+        translations = JsonStreamUtil.readStringOrArray(reader);
+      } catch (IOException e) {
+        throw new UncheckedIOException("LibreTranslate API returned invalid response", e);
+      }
+
+      if (translations.contains(null)) {
+        throw new RuntimeException("LibreTranslate API returned empty translation");
+      }
+
+      List<List<String>> results = new ArrayList<>(translations.size());
+      for (String translation : translations) {
+        results.add(List.of(translation));
+      }
+      return results;
+    });
+  }
+
+  /**
+   * Builds the translate url from the configured endpoint
+   * Accepts the instance root as well as the full /translate url
+   */
+  private String translateUrl() {
+    String endpoint = this.endpoint();
+    while (endpoint.endsWith("/")) {
+      endpoint = endpoint.substring(0, endpoint.length() - 1);
+    }
+    return endpoint.endsWith("/translate") ? endpoint : endpoint + "/translate";
+  }
+
+  private String endpoint() {
+    String endpoint = this.configuration.libreTranslateEndpoint().get();
+    return isSet(endpoint) ? endpoint.trim() : DEFAULT_ENDPOINT;
+  }
+
+  private String host() {
+    try {
+      return URI.create(this.endpoint()).getHost();
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+}
\ No newline at end of file
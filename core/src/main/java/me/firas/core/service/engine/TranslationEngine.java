@@ -0,0 +1,38 @@
+package me.firas.core.service.engine;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A translation service the addon can send requests to
+ * Implementations only build requests and parse responses, connection reuse,
+ * rate limiting, timeouts and hedging are provided by their {@link EngineClient}
+ */
+public interface TranslationEngine {
+
+  /**
+   * @return The engine's limits and features
+   */
+  EngineCapabilities capabilities();
+
+  /**
+   * Checks the settings the engine needs, such as an API key
+   *
+   * @return Message explaining what is missing, or null if the engine can be used
+   */
+  default String configurationError() {
+    return null;
+  }
+
+  /**
+   * Translates a batch of texts
+   * Callers respect {@link EngineCapabilities#maxBatchSize()} and only pass several
+   * target languages if {@link EngineCapabilities#multiTarget()} is set
+   *
+   * @param texts Texts to translate
+   * @param sourceLang Source language code, "auto" to detect it
+   * @param targetLangs Target language codes
+   * @return Future completing with one list per text, holding one translation per target language
+   */
+  CompletableFuture<List<List<String>>> translate(List<String> texts, String sourceLang, List<String> targetLangs);
+}
\ No newline at end of file
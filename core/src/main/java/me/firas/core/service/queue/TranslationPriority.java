@@ -0,0 +1,11 @@
+package me.firas.core.service.queue;
+
+/**
+ * Lane a translation waits in when the engines are busy
+ */
+public enum TranslationPriority {
+  // Requested by the player, such as a click on the translate button
+  INTERACTIVE,
+  // Prefetch, bulk and automatic translations that fill spare capacity
+  BACKGROUND
+}
\ No newline at end of file
@@ -0,0 +1,292 @@
+package me.firas.core.service.queue;
+
+import me.firas.core.TranslatorConfiguration.SheddingPolicy;
+import me.firas.core.util.FutureUtil;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Bounded admission queue in front of the translation engines
+ * A limited number of translations run at once, further ones wait in a queue of
+ * configurable depth shared by both lanes. When the queue is full the shedding policy decides which
+ * translation is given up, so stale work never piles up during chat floods
+ * Interactive and background translations wait in separate lanes. Interactive ones
+ * are started first and always have slots that background work cannot take, while
+ * every few interactive starts one waiting background translation is let through
+ * Cancelling a returned future removes the translation from the queue, or cancels it if it is running
+ */
+public class TranslationQueue {
+
+  // Slots background translations leave free for interactive ones
+  private static final int INTERACTIVE_RESERVED = 4;
+
+  // Interactive translations started in a row before a waiting background one gets its turn
+  private static final int INTERACTIVE_BURST = 4;
+
+  private final int maxActive;
+  private final int maxActiveBackground;
+  private final IntSupplier queueDepth;
+  private final Supplier<SheddingPolicy> sheddingPolicy;
+  private final long maxWaitNanos;
+  private final Map<TranslationPriority, Deque<Entry>> waiting = new EnumMap<>(TranslationPriority.class);
+  private int activeInteractive;
+  private int activeBackground;
+  private int interactiveStreak;
+
+  /**
+   * @param maxActive Number of translations sent to the engines at once
+   * @param queueDepth Number of translations that may wait, read on every submit
+   * @param sheddingPolicy Policy applied when the queue is full, read on every submit
+   * @param maxWaitMs Time after which a waiting translation expires under {@link SheddingPolicy#EXPIRE_DEADLINE}
+   */
+  public TranslationQueue(int maxActive, IntSupplier queueDepth, Supplier<SheddingPolicy> sheddingPolicy,
+      long maxWaitMs) {
+    this.maxActive = maxActive;
+    this.queueDepth = queueDepth;
+    this.sheddingPolicy = sheddingPolicy;
+    this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+    this.maxActiveBackground = Math.max(1, maxActive - INTERACTIVE_RESERVED);
+    for (TranslationPriority priority : TranslationPriority.values()) {
+      this.waiting.put(priority, new ArrayDeque<>());
+    }
+  }
+
+  /**
+   * Runs the task now if there is capacity, otherwise queues it in its priority's lane
+   * A task that is shed fails with a {@link TranslationRejectedException}
+   *
+   * @param priority Lane the task waits in
+   * @param task Starts the translation
+   * @return Future completing with the task's result
+   */
+  public <T> CompletableFuture<T> submit(TranslationPriority priority, Supplier<CompletableFuture<T>> task) {
+    CompletableFuture<T> result = new CompletableFuture<>();
+    Entry entry = new Entry(priority, result);
+    entry.start = () -> this.run(entry, task, result);
+
+    List<Entry> shed = new ArrayList<>();
+    boolean start = false;
+    synchronized (this) {
+      SheddingPolicy policy = this.sheddingPolicy.get();
+      if (policy == SheddingPolicy.EXPIRE_DEADLINE) {
+        this.expire(shed);
+      }
+
+      Deque<Entry> lane = this.waiting.get(priority);
+      if (lane.isEmpty() && this.canStart(priority)) {
+        this.started(entry);
+        start = true;
+      } else if (this.waitingCount() < Math.max(1, this.queueDepth.getAsInt())) {
+        lane.add(entry);
+      } else {
+        Deque<Entry> oldest = policy == SheddingPolicy.DROP_OLDEST ? this.sheddableLane(priority) : null;
+        if (oldest != null) {
+          shed.add(oldest.poll());
+          lane.add(entry);
+        } else {
+          shed.add(entry);
+        }
+      }
+    }
+
+    reject(shed);
+    if (start) {
+      entry.start.run();
+    } else {
+      // A cancelled translation gives its place in the queue back right away
+      result.whenComplete((value, throwable) -> {
+        if (result.isCancelled()) {
+          this.remove(entry);
+        }
+      });
+    }
+    return result;
+  }
+
+  private int waitingCount() {
+    int count = 0;
+    for (Deque<Entry> lane : this.waiting.values()) {
+      count += lane.size();
+    }
+    return count;
+  }
+
+  /**
+   * Lane whose oldest translation makes room for a new one when the queue is full
+   * Background translations are given up first, a background one never displaces an interactive one
+   */
+  private Deque<Entry> sheddableLane(TranslationPriority priority) {
+    Deque<Entry> background = this.waiting.get(TranslationPriority.BACKGROUND);
+    if (!background.isEmpty()) {
+      return background;
+    }
+    return priority == TranslationPriority.INTERACTIVE ? this.waiting.get(TranslationPriority.INTERACTIVE) : null;
+  }
+
+  private synchronized void remove(Entry entry) {
+    this.waiting.get(entry.priority).remove(entry);
+  }
+
+  /**
+   * Moves a waiting background translation into the interactive lane
+   * Used when the player asks for a translation that is already queued in the background
+   *
+   * @param result Future returned by {@link #submit}
+   */
+  public void promote(CompletableFuture<?> result) {
+    Entry promoted = null;
+    synchronized (this) {
+      for (Iterator<Entry> iterator = this.waiting.get(TranslationPriority.BACKGROUND).iterator();
+          iterator.hasNext(); ) {
+        Entry entry = iterator.next();
+        if (entry.result == result) {
+          iterator.remove();
+          entry.priority = TranslationPriority.INTERACTIVE;
+          this.waiting.get(TranslationPriority.INTERACTIVE).addFirst(entry);
+          promoted = entry;
+          break;
+        }
+      }
+    }
+
+    if (promoted != null) {
+      this.startWaiting();
+    }
+  }
+
+  private <T> void run(Entry entry, Supplier<CompletableFuture<T>> task, CompletableFuture<T> result) {
+    CompletableFuture<T> translation;
+    try {
+      translation = task.get();
+    } catch (Exception e) {
+      translation = CompletableFuture.failedFuture(e);
+    }
+
+    // Cancelling the result aborts the running translation, its slot is freed once that has stopped
+    FutureUtil.propagateCancel(result, translation);
+    translation.whenComplete((value, throwable) -> {
+      this.finished(entry);
+      if (throwable != null) {
+        result.completeExceptionally(throwable);
+      } else {
+        result.complete(value);
+      }
+    });
+  }
+
+  /**
+   * Frees the slot of a finished translation and hands it to the next waiting one
+   */
+  private void finished(Entry entry) {
+    synchronized (this) {
+      if (entry.priority == TranslationPriority.INTERACTIVE) {
+        this.activeInteractive--;
+      } else {
+        this.activeBackground--;
+      }
+    }
+    this.startWaiting();
+  }
+
+  /**
+   * Starts waiting translations that are still wanted while there is capacity
+   */
+  private void startWaiting() {
+    List<Entry> shed = new ArrayList<>();
+    List<Entry> next = new ArrayList<>();
+    synchronized (this) {
+      if (this.sheddingPolicy.get() == SheddingPolicy.EXPIRE_DEADLINE) {
+        this.expire(shed);
+      }
+
+      Entry candidate;
+      while ((candidate = this.pollNext()) != null) {
+        // Skip translations whose caller already gave up
+        if (!candidate.result.isDone()) {
+          this.started(candidate);
+          next.add(candidate);
+        }
+      }
+    }
+
+    reject(shed);
+    for (Entry entry : next) {
+      entry.start.run();
+    }
+  }
+
+  /**
+   * Takes the waiting translation that should start next, or null if none can start
+   * Interactive translations go first, unless background ones have been passed over
+   * {@link #INTERACTIVE_BURST} times in a row
+   */
+  private Entry pollNext() {
+    Deque<Entry> interactive = this.waiting.get(TranslationPriority.INTERACTIVE);
+    Deque<Entry> background = this.waiting.get(TranslationPriority.BACKGROUND);
+    boolean backgroundReady = !background.isEmpty() && this.canStart(TranslationPriority.BACKGROUND);
+    if (!interactive.isEmpty() && this.canStart(TranslationPriority.INTERACTIVE)
+        && (!backgroundReady || this.interactiveStreak < INTERACTIVE_BURST)) {
+      return interactive.poll();
+    }
+    return backgroundReady ? background.poll() : null;
+  }
+
+  private boolean canStart(TranslationPriority priority) {
+    if (this.activeInteractive + this.activeBackground >= this.maxActive) {
+      return false;
+    }
+    return priority == TranslationPriority.INTERACTIVE || this.activeBackground < this.maxActiveBackground;
+  }
+
+  private void started(Entry entry) {
+    if (entry.priority == TranslationPriority.INTERACTIVE) {
+      this.activeInteractive++;
+      this.interactiveStreak++;
+    } else {
+      this.activeBackground++;
+      this.interactiveStreak = 0;
+    }
+  }
+
+  /**
+   * Moves every translation that has waited longer than the deadline to the shed list
+   */
+  private void expire(List<Entry> shed) {
+    long now = System.nanoTime();
+    for (Deque<Entry> lane : this.waiting.values()) {
+      while (!lane.isEmpty() && now - lane.peek().enqueuedAt > this.maxWaitNanos) {
+        shed.add(lane.poll());
+      }
+    }
+  }
+
+  private static void reject(List<Entry> shed) {
+    for (Entry entry : shed) {
+      entry.result.completeExceptionally(
+          new TranslationRejectedException("Too many translations are pending, request was skipped"));
+    }
+  }
+
+  private static class Entry {
+    // Only changes while waiting, guarded by the queue
+    private TranslationPriority priority;
+    private Runnable start;
+    private final CompletableFuture<?> result;
+    private final long enqueuedAt = System.nanoTime();
+
+    private Entry(TranslationPriority priority, CompletableFuture<?> result) {
+      this.priority = priority;
+      this.result = result;
+    }
+  }
+}
\ No newline at end of file
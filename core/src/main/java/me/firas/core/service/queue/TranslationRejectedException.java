@@ -0,0 +1,13 @@
+package me.firas.core.service.queue;
+
+/**
+ * Thrown for translations the queue gave up on because too many were pending
+ */
+public class TranslationRejectedException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  public TranslationRejectedException(String message) {
+    super(message);
+  }
+}
\ No newline at end of file
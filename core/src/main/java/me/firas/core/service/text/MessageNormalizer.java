@@ -0,0 +1,182 @@
+package me.firas.core.service.text;
+
+import me.firas.core.service.text.NormalizedMessage.Casing;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Normalizes chat messages before they are looked up in the cache and translated
+ * Near-identical lines such as "gg", "gg!!" and "  gg " share one normalized form,
+ * and with it one cache entry and one engine call. The casing and terminal punctuation
+ * that were folded away are kept in the {@link NormalizedMessage} and restored onto the translation
+ */
+public class MessageNormalizer {
+
+  // Latin lookalikes from other scripts, folded only inside words that also contain Latin letters
+  private static final String HOMOGLYPHS = "аaеeоoрpсcуyхxіiјjѕsԁdԛqԝwАAВBЕEКKМMНHОOРPСCТTХXУYІIЈJЅS"
+      + "ΑAΒBΕEΖZΗHΙIΚKΜMΝNΟOΡPΤTΥYΧXοoνv";
+
+  private MessageNormalizer() {
+  }
+
+  /**
+   * @param text The chat message
+   * @return The normalized message
+   */
+  public static NormalizedMessage normalize(String text) {
+    String normalized = Normalizer.normalize(text, Normalizer.Form.NFC);
+    normalized = foldHomoglyphs(normalized);
+    normalized = collapseWhitespace(normalized);
+    normalized = squashPunctuation(normalized);
+
+    // Terminal "!", "." and "~" do not change the meaning, "?" is kept as it does
+    int end = normalized.length();
+    while (end > 0 && isTerminal(normalized.charAt(end - 1))) {
+      end--;
+    }
+    String trailingPunctuation = "";
+    if (end > 0 && end < normalized.length()) {
+      // The original run is restored, e.g. "!!" rather than the squashed "!"
+      trailingPunctuation = trailingRun(text);
+      normalized = normalized.substring(0, end).trim();
+    }
+
+    Casing casing = casing(normalized);
+    if (casing != Casing.ORIGINAL) {
+      normalized = normalized.toLowerCase(Locale.ROOT);
+    }
+    return new NormalizedMessage(normalized, casing, trailingPunctuation);
+  }
+
+  static boolean isTerminal(char c) {
+    return c == '!' || c == '.' || c == '~' || c == '。' || c == '！';
+  }
+
+  /**
+   * Folds casing only for shouted sentences: all uppercase, at least two words and one of them
+   * four letters or longer. Short all-caps tokens are often acronyms ("US", "IT", "WHO") and
+   * capitalized words often names ("Turkey", "March", "Bill"), so they are kept as written
+   */
+  private static Casing casing(String text) {
+    boolean anyUpper = false;
+    int words = 0;
+    int wordLetters = 0;
+    int longestWord = 0;
+    for (int i = 0; i < text.length(); ) {
+      int codePoint = text.codePointAt(i);
+      i += Character.charCount(codePoint);
+      if (codePoint == ' ') {
+        wordLetters = 0;
+        continue;
+      }
+      if (!Character.isLetter(codePoint)) {
+        continue;
+      }
+      if (Character.isLowerCase(codePoint)) {
+        return Casing.ORIGINAL;
+      }
+      anyUpper |= Character.isUpperCase(codePoint) || Character.isTitleCase(codePoint);
+      if (wordLetters++ == 0) {
+        words++;
+      }
+      longestWord = Math.max(longestWord, wordLetters);
+    }
+
+    return anyUpper && words >= 2 && longestWord >= 4 ? Casing.UPPER : Casing.ORIGINAL;
+  }
+
+  /**
+   * Folds fullwidth letters and digits to ASCII, and other scripts' Latin lookalikes
+   * in words that mix them with Latin letters, e.g. a Cyrillic "о" in "gооd"
+   */
+  private static String foldHomoglyphs(String text) {
+    StringBuilder builder = new StringBuilder(text.length());
+    int wordStart = 0;
+    boolean latin = false;
+    boolean lookalike = false;
+    for (int i = 0; i <= text.length(); i++) {
+      char c = i < text.length() ? text.charAt(i) : ' ';
+      if (c >= '０' && c <= 'ｚ' && Character.isLetterOrDigit(c)) {
+        c = (char) (c - '！' + '!');
+      }
+
+      if (Character.isLetter(c)) {
+        latin |= c < 0x250;
+        lookalike |= HOMOGLYPHS.indexOf(c) % 2 == 0;
+        builder.append(c);
+        continue;
+      }
+
+      if (latin && lookalike) {
+        // Only words that mix scripts are folded, real Cyrillic or Greek text stays untouched
+        for (int j = wordStart; j < builder.length(); j++) {
+          int index = HOMOGLYPHS.indexOf(builder.charAt(j));
+          if (index >= 0 && index % 2 == 0) {
+            builder.setCharAt(j, HOMOGLYPHS.charAt(index + 1));
+          }
+        }
+      }
+      if (i < text.length()) {
+        builder.append(c);
+      }
+      wordStart = builder.length();
+      latin = false;
+      lookalike = false;
+    }
+    return builder.toString();
+  }
+
+  private static String collapseWhitespace(String text) {
+    StringBuilder builder = new StringBuilder(text.length());
+    boolean space = false;
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (Character.isWhitespace(c) || Character.isSpaceChar(c)) {
+        space = builder.length() > 0;
+      } else {
+        if (space) {
+          builder.append(' ');
+          space = false;
+        }
+        builder.append(c);
+      }
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Squashes repeated punctuation, "what???" becomes "what?" and any run of dots an ellipsis
+   */
+  private static String squashPunctuation(String text) {
+    StringBuilder builder = new StringBuilder(text.length());
+    for (int i = 0; i < text.length(); ) {
+      char c = text.charAt(i);
+      int end = i + 1;
+      if ("!?.,~".indexOf(c) >= 0) {
+        while (end < text.length() && text.charAt(end) == c) {
+          end++;
+        }
+      }
+      if (c == '.' && end - i > 1) {
+        builder.append("...");
+      } else {
+        builder.append(c);
+      }
+      i = end;
+    }
+    return builder.toString();
+  }
+
+  private static String trailingRun(String text) {
+    int end = text.length();
+    while (end > 0 && Character.isWhitespace(text.charAt(end - 1))) {
+      end--;
+    }
+    int start = end;
+    while (start > 0 && isTerminal(text.charAt(start - 1))) {
+      start--;
+    }
+    return text.substring(start, end);
+  }
+}
\ No newline at end of file
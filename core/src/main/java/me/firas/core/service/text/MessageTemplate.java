@@ -0,0 +1,99 @@
+package me.firas.core.service.text;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Server message with its variable parts replaced by placeholders
+ * "Steve joined the arena (3/16)" becomes "{0} joined the arena ({1}/{2})", so every
+ * instance of the message shares one cached translation and the slots are filled in locally
+ *
+ * @param text Text with placeholders, translated and cached instead of the message
+ * @param slots Masked values, slot i replaces placeholder "{i}"
+ */
+public record MessageTemplate(String text, List<String> slots) {
+
+  // Longest and shortest Minecraft usernames, shorter names are too likely to be ordinary words
+  private static final int MIN_NAME_LENGTH = 3;
+  private static final int MAX_NAME_LENGTH = 16;
+
+  // Coordinate triples are masked as one slot, then single numbers outside of words
+  // Dotted numbers like versions are one value, a number is never cut off in front of ".digit"
+  private static final String NUMBER = "[-+]?\\d+(?:[.,]\\d+)*";
+  private static final Pattern VALUES = Pattern.compile(
+      "(?<![\\p{L}\\d_.])(" + NUMBER + "(?:[ ,/]+" + NUMBER + "){2}|" + NUMBER + ")(?![\\p{L}\\d_]|[.,]\\d)"
+          + "|(?<![\\w])(\\w{" + MIN_NAME_LENGTH + "," + MAX_NAME_LENGTH + "})(?!\\w)");
+  private static final Pattern PLACEHOLDER = Pattern.compile("\\{(\\d+)}");
+
+  /**
+   * Masks numbers, coordinates and the names of online players
+   *
+   * @param text The message
+   * @param playerNames Names of the players on the server
+   * @return The template, or null if the message has nothing to mask
+   */
+  public static MessageTemplate of(String text, Collection<String> playerNames) {
+    if (PLACEHOLDER.matcher(text).find()) {
+      // Placeholders could not be told apart from the message's own text
+      return null;
+    }
+
+    List<String> slots = new ArrayList<>();
+    StringBuilder builder = new StringBuilder(text.length());
+    Matcher matcher = VALUES.matcher(text);
+    int position = 0;
+    while (matcher.find()) {
+      String value = matcher.group();
+      if (matcher.group(2) != null && !playerNames.contains(value)) {
+        // A word that is not a player name
+        continue;
+      }
+      builder.append(text, position, matcher.start()).append('{').append(slots.size()).append('}');
+      slots.add(value);
+      position = matcher.end();
+    }
+    if (slots.isEmpty()) {
+      return null;
+    }
+
+    builder.append(text, position, text.length());
+    return new MessageTemplate(builder.toString(), List.copyOf(slots));
+  }
+
+  /**
+   * Puts the masked values into a translation of the template
+   *
+   * @param translation Translation of {@link #text()}
+   * @return The translated message, or null if the engine did not keep every placeholder exactly once
+   */
+  public String fill(String translation) {
+    boolean[] filled = new boolean[this.slots.size()];
+    StringBuilder builder = new StringBuilder(translation.length());
+    Matcher matcher = PLACEHOLDER.matcher(translation);
+    int position = 0;
+    while (matcher.find()) {
+      int slot;
+      try {
+        slot = Integer.parseInt(matcher.group(1));
+      } catch (NumberFormatException e) {
+        return null;
+      }
+      if (slot >= filled.length || filled[slot]) {
+        return null;
+      }
+      filled[slot] = true;
+      builder.append(translation, position, matcher.start()).append(this.slots.get(slot));
+      position = matcher.end();
+    }
+
+    for (boolean slot : filled) {
+      if (!slot) {
+        return null;
+      }
+    }
+    return builder.append(translation, position, translation.length()).toString();
+  }
+}
\ No newline at end of file
@@ -0,0 +1,46 @@
+package me.firas.core.service.text;
+
+import java.util.Locale;
+
+/**
+ * Chat message in its normalized form, together with the shape it had before
+ *
+ * @param text Normalized text, used for the cache key and sent to the engine
+ * @param casing Casing the original message was written in
+ * @param trailingPunctuation Terminal punctuation removed from the end, restored onto the translation
+ */
+public record NormalizedMessage(String text, Casing casing, String trailingPunctuation) {
+
+  /**
+   * Applies the original message's casing and terminal punctuation to a translation
+   *
+   * @param translation Translation of the normalized text
+   * @return Translation shaped like the original message
+   */
+  public String restore(String translation) {
+    String restored = switch (this.casing) {
+      case UPPER -> translation.toUpperCase(Locale.ROOT);
+      case ORIGINAL -> translation;
+    };
+
+    if (this.trailingPunctuation.isEmpty()) {
+      return restored;
+    }
+    // Engines often add their own full stop, the original punctuation replaces it
+    int end = restored.length();
+    while (end > 0 && MessageNormalizer.isTerminal(restored.charAt(end - 1))) {
+      end--;
+    }
+    return restored.substring(0, end) + this.trailingPunctuation;
+  }
+
+  /**
+   * Casing of the original message that was folded away
+   */
+  public enum Casing {
+    // Kept as written
+    ORIGINAL,
+    // A shouted sentence, every letter was uppercase, e.g. "WHERE IS THE SHOP"
+    UPPER
+  }
+}
\ No newline at end of file
@@ -0,0 +1,105 @@
+package me.firas.core.service.transport;
+
+/**
+ * Tracks the health of one engine and stops sending to it while it is failing
+ * After several failures in a row the breaker opens and requests skip the engine
+ * instead of waiting for it to time out. Once the open period has passed a single
+ * trial request is let through, its outcome closes the breaker or opens it again
+ */
+public class CircuitBreaker {
+
+  private enum State {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+  }
+
+  // Failures in a row that open the breaker
+  private static final int FAILURE_THRESHOLD = 3;
+  // Time the engine is skipped after opening, doubled each time the trial fails
+  private static final long OPEN_DURATION_MS = 15 * 1000;
+  private static final long MAX_OPEN_DURATION_MS = 5 * 60 * 1000;
+
+  private State state = State.CLOSED;
+  private int consecutiveFailures;
+  private long openDurationMs = OPEN_DURATION_MS;
+  private long openUntil;
+  private long trialStarted;
+
+  /**
+   * Checks whether a request may be sent to the engine
+   * In the half-open state only the first caller is let through as the trial request
+   *
+   * @return True if the request may be sent
+   */
+  public synchronized boolean tryAcquire() {
+    switch (this.state) {
+      case CLOSED:
+        return true;
+      case OPEN:
+        if (System.currentTimeMillis() < this.openUntil) {
+          return false;
+        }
+        this.state = State.HALF_OPEN;
+        this.trialStarted = System.currentTimeMillis();
+        return true;
+      default:
+        // Wait for the running trial request, unless it never reported back
+        if (System.currentTimeMillis() - this.trialStarted < OPEN_DURATION_MS) {
+          return false;
+        }
+        this.trialStarted = System.currentTimeMillis();
+        return true;
+    }
+  }
+
+  /**
+   * @return True if requests would currently be rejected without a trial
+   */
+  public synchronized boolean isOpen() {
+    long now = System.currentTimeMillis();
+    return (this.state == State.OPEN && now < this.openUntil)
+        || (this.state == State.HALF_OPEN && now - this.trialStarted < OPEN_DURATION_MS);
+  }
+
+  /**
+   * Records a successful response, closing the breaker
+   */
+  public synchronized void onSuccess() {
+    this.state = State.CLOSED;
+    this.consecutiveFailures = 0;
+    this.openDurationMs = OPEN_DURATION_MS;
+  }
+
+  /**
+   * Ends a trial request that was cancelled before it got a response
+   * The next request becomes the trial right away instead of waiting for the stale trial timeout
+   */
+  public synchronized void release() {
+    if (this.state == State.HALF_OPEN) {
+      this.state = State.OPEN;
+      this.openUntil = System.currentTimeMillis();
+    }
+  }
+
+  /**
+   * Records a failed or timed out request
+   */
+  public synchronized void onFailure() {
+    if (this.state == State.HALF_OPEN) {
+      // The engine is still down, wait longer before the next trial
+      this.openDurationMs = Math.min(this.openDurationMs * 2, MAX_OPEN_DURATION_MS);
+      this.open();
+      return;
+    }
+
+    if (++this.consecutiveFailures >= FAILURE_THRESHOLD) {
+      this.open();
+    }
+  }
+
+  private void open() {
+    this.state = State.OPEN;
+    this.openUntil = System.currentTimeMillis() + this.openDurationMs;
+  }
+}
\ No newline at end of file
@@ -0,0 +1,64 @@
+package me.firas.core.service.transport;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Caps the number of requests an engine has open at once
+ * Works like a semaphore whose permits are handed out asynchronously,
+ * so waiting requests never hold a thread
+ */
+public class ConcurrencyLimiter {
+
+  private final int maxConcurrent;
+  private final Deque<CompletableFuture<Void>> waiting = new ArrayDeque<>();
+  private int active;
+
+  /**
+   * @param maxConcurrent Number of permits
+   */
+  public ConcurrencyLimiter(int maxConcurrent) {
+    this.maxConcurrent = maxConcurrent;
+  }
+
+  /**
+   * Takes a permit, which must be given back with {@link #release()}
+   * Cancelling the returned future gives up the place in the queue
+   *
+   * @return Future completing once the permit is granted
+   */
+  public CompletableFuture<Void> acquire() {
+    synchronized (this) {
+      if (this.active < this.maxConcurrent) {
+        this.active++;
+        return CompletableFuture.completedFuture(null);
+      }
+      CompletableFuture<Void> permit = new CompletableFuture<>();
+      this.waiting.add(permit);
+      return permit;
+    }
+  }
+
+  /**
+   * Gives a permit back, handing it to the next waiting request if there is one
+   */
+  public void release() {
+    CompletableFuture<Void> next;
+    synchronized (this) {
+      do {
+        next = this.waiting.poll();
+      } while (next != null && next.isDone());
+
+      if (next == null) {
+        this.active--;
+        return;
+      }
+    }
+
+    if (!next.complete(null)) {
+      // Cancelled just after it was taken from the queue
+      this.release();
+    }
+  }
+}
\ No newline at end of file
@@ -0,0 +1,82 @@
+package me.firas.core.service.transport;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Shared HTTP transport used by every translation engine
+ * One pooled client keeps connections alive per engine host, negotiates HTTP/2
+ * where the endpoint supports it and reuses TLS sessions between requests
+ * Requests are sent asynchronously, no thread is blocked while waiting on the network
+ */
+public class HttpTransport {
+
+  private static final String USER_AGENT = "Mozilla/5.0";
+
+  private final HttpClient client;
+
+  public HttpTransport(Executor executor, int connectTimeoutMs) {
+    this.client = HttpClient.newBuilder()
+        .executor(executor)
+        .version(HttpClient.Version.HTTP_2)
+        .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+        .followRedirects(HttpClient.Redirect.NORMAL)
+        .build();
+  }
+
+  /**
+   * Creates a GET request for the given url
+   *
+   * @param url The request url
+   * @param timeoutMs Time to wait for the response
+   * @return Request builder, headers can still be added
+   */
+  public HttpRequest.Builder get(String url, int timeoutMs) {
+    return this.newRequest(url, timeoutMs).GET();
+  }
+
+  /**
+   * Creates a POST request sending the given body as JSON
+   *
+   * @param url The request url
+   * @param jsonBody The JSON body to send
+   * @param timeoutMs Time to wait for the response
+   * @return Request builder, headers can still be added
+   */
+  public HttpRequest.Builder postJson(String url, String jsonBody, int timeoutMs) {
+    return this.newRequest(url, timeoutMs)
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(jsonBody, StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Sends the request over a pooled connection without blocking
+   * The body is collected by the client's selector, so the future only
+   * completes once the full response has arrived
+   *
+   * @param request The request to send
+   * @return Future completing with the response
+   */
+  public CompletableFuture<HttpResponse<byte[]>> sendAsync(HttpRequest request) {
+    return this.client.sendAsync(request, BodyHandlers.ofByteArray());
+  }
+
+  private HttpRequest.Builder newRequest(String url, int timeoutMs) {
+    URI uri = URI.create(url);
+    HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+        .header("User-Agent", USER_AGENT)
+        .timeout(Duration.ofMillis(timeoutMs));
+    if ("http".equalsIgnoreCase(uri.getScheme())) {
+      // Plain connections (e.g. a self-hosted server) skip the h2c upgrade attempt
+      builder.version(HttpClient.Version.HTTP_1_1);
+    }
+    return builder;
+  }
+}
\ No newline at end of file
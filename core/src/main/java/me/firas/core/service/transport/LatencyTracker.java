@@ -0,0 +1,55 @@
+package me.firas.core.service.transport;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the response times of the most recent requests to one engine
+ * Percentiles are computed from a fixed window of samples, so they follow
+ * the engine's current behaviour instead of its whole history
+ */
+public class LatencyTracker {
+
+  private static final int WINDOW_SIZE = 512;
+  // Fewer samples than this give no meaningful tail estimate
+  private static final int MIN_SAMPLES = 20;
+  // Sorted copy is refreshed after this many new samples
+  private static final int RESORT_INTERVAL = 16;
+
+  private final long[] samples = new long[WINDOW_SIZE];
+  private long[] sorted = new long[0];
+  private int count;
+  private int next;
+  private int unsorted;
+
+  /**
+   * Records the duration of one request
+   *
+   * @param latencyMs Time from sending the request to receiving the full response
+   */
+  public synchronized void record(long latencyMs) {
+    this.samples[this.next] = latencyMs;
+    this.next = (this.next + 1) % WINDOW_SIZE;
+    this.count = Math.min(this.count + 1, WINDOW_SIZE);
+    this.unsorted++;
+  }
+
+  /**
+   * @param percentile Percentile between 0 and 1, e.g. 0.95
+   * @return Latency in milliseconds below which the given share of requests finished,
+   *     or -1 if too few requests have been recorded yet
+   */
+  public synchronized long percentile(double percentile) {
+    if (this.count < MIN_SAMPLES) {
+      return -1;
+    }
+
+    if (this.unsorted >= RESORT_INTERVAL || this.sorted.length != this.count) {
+      this.sorted = Arrays.copyOf(this.samples, this.count);
+      Arrays.sort(this.sorted);
+      this.unsorted = 0;
+    }
+
+    int index = (int) Math.ceil(percentile * this.sorted.length) - 1;
+    return this.sorted[Math.max(0, Math.min(index, this.sorted.length - 1))];
+  }
+}
\ No newline at end of file
@@ -0,0 +1,225 @@
+package me.firas.core.service.transport;
+
+import java.net.http.HttpHeaders;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * Token bucket pacing the requests sent to one engine
+ * Callers wait in order for a permit instead of failing, permits are handed out
+ * by the scheduler as tokens refill, so no thread blocks while waiting.
+ * Responses feed back into the bucket: a 429 or an exhausted quota pauses
+ * all permits until the time the engine asked for
+ */
+public class RateLimiter {
+
+  private static final int HTTP_TOO_MANY_REQUESTS = 429;
+  private static final int HTTP_UNAVAILABLE = 503;
+
+  // Pause after a 429 without Retry-After, doubled for every further 429 in a row
+  private static final long DEFAULT_BACKOFF_MS = 1000;
+  private static final int MAX_BACKOFF_SHIFT = 5;
+  // Upper bound for pauses requested by the engine (5 minutes)
+  private static final long MAX_PAUSE_MS = 5 * 60 * 1000;
+  // Reset headers above this value are epoch seconds, below it seconds from now
+  private static final long EPOCH_SECONDS_THRESHOLD = 1_000_000_000L;
+
+  private final ScheduledExecutorService scheduler;
+  private final IntSupplier permitsPerSecond;
+  private final Deque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+
+  private double tokens;
+  private long lastRefillNanos;
+  private long pausedUntilNanos;
+  private int consecutiveThrottles;
+  private boolean drainScheduled;
+
+  /**
+   * @param scheduler Scheduler that hands out permits once tokens are available
+   * @param permitsPerSecond Current request rate, read on every refill so it can change at runtime
+   */
+  public RateLimiter(ScheduledExecutorService scheduler, IntSupplier permitsPerSecond) {
+    this.scheduler = scheduler;
+    this.permitsPerSecond = permitsPerSecond;
+    this.lastRefillNanos = System.nanoTime();
+    this.pausedUntilNanos = this.lastRefillNanos;
+    this.tokens = this.capacity();
+  }
+
+  /**
+   * Queues for a permit to send one request
+   * Cancelling the returned future gives up the place in the queue
+   *
+   * @return Future completing once the request may be sent
+   */
+  public CompletableFuture<Void> acquire() {
+    CompletableFuture<Void> permit = new CompletableFuture<>();
+    synchronized (this) {
+      this.waiters.add(permit);
+    }
+    this.drain();
+    return permit;
+  }
+
+  /**
+   * Adjusts the limiter to an engine response
+   * A 429, or a 503 with Retry-After, pauses all permits for the requested time,
+   * quota headers reporting no remaining requests pause until the quota resets
+   *
+   * @param statusCode The response status
+   * @param headers The response headers
+   * @return True if the engine throttled the request and it should be sent again
+   */
+  public boolean onResponse(int statusCode, HttpHeaders headers) {
+    Optional<Long> retryAfterMs = retryAfterMs(headers);
+    boolean throttled = statusCode == HTTP_TOO_MANY_REQUESTS
+        || (statusCode == HTTP_UNAVAILABLE && retryAfterMs.isPresent());
+
+    synchronized (this) {
+      if (throttled) {
+        long backoffMs = DEFAULT_BACKOFF_MS << Math.min(this.consecutiveThrottles, MAX_BACKOFF_SHIFT);
+        this.consecutiveThrottles++;
+        this.pause(retryAfterMs.orElse(backoffMs));
+      } else {
+        this.consecutiveThrottles = 0;
+        quotaResetMs(headers).ifPresent(this::pause);
+      }
+    }
+
+    if (throttled) {
+      this.drain();
+    }
+    return throttled;
+  }
+
+  private void pause(long delayMs) {
+    long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.min(delayMs, MAX_PAUSE_MS));
+    if (until - this.pausedUntilNanos > 0) {
+      this.pausedUntilNanos = until;
+    }
+    // Resume with a single request instead of a burst, the rest refills from the end of the pause
+    this.tokens = 1;
+    if (until - this.lastRefillNanos > 0) {
+      this.lastRefillNanos = until;
+    }
+  }
+
+  /**
+   * Hands out as many permits as there are tokens and schedules the next round
+   */
+  private void drain() {
+    List<CompletableFuture<Void>> granted = new ArrayList<>();
+    synchronized (this) {
+      long now = System.nanoTime();
+      this.refill(now);
+
+      long delayNanos = 0;
+      while (!this.waiters.isEmpty()) {
+        if (this.waiters.peek().isDone()) {
+          // Cancelled while waiting
+          this.waiters.poll();
+          continue;
+        }
+        if (this.pausedUntilNanos - now > 0) {
+          delayNanos = this.pausedUntilNanos - now;
+          break;
+        }
+        if (this.tokens < 1) {
+          delayNanos = (long) ((1 - this.tokens) * TimeUnit.SECONDS.toNanos(1) / this.rate());
+          break;
+        }
+        this.tokens--;
+        granted.add(this.waiters.poll());
+      }
+
+      if (delayNanos > 0 && !this.drainScheduled) {
+        this.drainScheduled = true;
+        this.scheduler.schedule(this::scheduledDrain, delayNanos, TimeUnit.NANOSECONDS);
+      }
+    }
+
+    for (CompletableFuture<Void> permit : granted) {
+      permit.complete(null);
+    }
+  }
+
+  private void scheduledDrain() {
+    synchronized (this) {
+      this.drainScheduled = false;
+    }
+    this.drain();
+  }
+
+  private void refill(long now) {
+    long elapsed = now - this.lastRefillNanos;
+    if (elapsed <= 0) {
+      return;
+    }
+    this.tokens = Math.min(this.capacity(), this.tokens + elapsed * this.rate() / TimeUnit.SECONDS.toNanos(1));
+    this.lastRefillNanos = now;
+  }
+
+  private double rate() {
+    return Math.max(1, this.permitsPerSecond.getAsInt());
+  }
+
+  private double capacity() {
+    // Allows a burst of one second worth of requests
+    return this.rate();
+  }
+
+  /**
+   * Reads Retry-After, given either in seconds or as an HTTP date
+   */
+  private static Optional<Long> retryAfterMs(HttpHeaders headers) {
+    return headers.firstValue("Retry-After").flatMap(value -> {
+      try {
+        return Optional.of(Long.parseLong(value.trim()) * 1000);
+      } catch (NumberFormatException e) {
+        try {
+          ZonedDateTime date = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+          return Optional.of(Math.max(0, date.toInstant().toEpochMilli() - System.currentTimeMillis()));
+        } catch (DateTimeParseException ignored) {
+          return Optional.empty();
+        }
+      }
+    });
+  }
+
+  /**
+   * Reads the time until the quota resets if the quota headers report no remaining requests
+   * Supports both the X-RateLimit-* and the RateLimit-* header names
+   */
+  private static Optional<Long> quotaResetMs(HttpHeaders headers) {
+    Optional<String> remaining = headers.firstValue("X-RateLimit-Remaining")
+        .or(() -> headers.firstValue("RateLimit-Remaining"));
+    if (remaining.isEmpty() || !remaining.get().trim().equals("0")) {
+      return Optional.empty();
+    }
+
+    return headers.firstValue("X-RateLimit-Reset")
+        .or(() -> headers.firstValue("RateLimit-Reset"))
+        .flatMap(value -> {
+          try {
+            long reset = (long) Double.parseDouble(value.trim());
+            if (reset > EPOCH_SECONDS_THRESHOLD) {
+              return Optional.of(Math.max(0, Instant.ofEpochSecond(reset).toEpochMilli() - System.currentTimeMillis()));
+            }
+            return Optional.of(reset * 1000);
+          } catch (NumberFormatException e) {
+            return Optional.empty();
+          }
+        });
+  }
+}
\ No newline at end of file
@@ -0,0 +1,144 @@
+package me.firas.core.service.transport;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Sends a duplicate of a slow request and keeps whichever answer arrives first
+ * A hedge is only sent once the request has been on the network for longer than the given delay,
+ * and only while the budget allows it: every request earns a fraction of a hedge,
+ * so hedges stay a small share of the traffic even when an engine is slow overall
+ */
+public class RequestHedger {
+
+  // Hedges that can be saved up for a burst of slow requests
+  private static final double MAX_BUDGET = 10;
+  // Callback for attempts whose send does not start a hedge timer
+  private static final Runnable IGNORE_SENT = () -> {
+  };
+
+  private final ScheduledExecutorService scheduler;
+  private final double budgetRatio;
+  private double budget;
+
+  /**
+   * @param scheduler Scheduler used to send the hedge after its delay
+   * @param budgetRatio Maximum share of requests that may be hedged, e.g. 0.05
+   */
+  public RequestHedger(ScheduledExecutorService scheduler, double budgetRatio) {
+    this.scheduler = scheduler;
+    this.budgetRatio = budgetRatio;
+  }
+
+  /**
+   * Sends the request and hedges it if it is still running the delay after it was sent
+   * The delay starts once the first attempt is handed to the transport, time spent waiting
+   * for permits does not make a request look slow. The attempt that loses the race is cancelled
+   *
+   * @param call Sends one attempt of the request, runs the given callback when the attempt is sent
+   * @param hedgeDelayMs Time after which a hedge is sent, negative to never hedge
+   * @return Future completing with the first successful response, or the first error if all attempts fail
+   */
+  public <T> CompletableFuture<T> execute(Function<Runnable, CompletableFuture<T>> call, long hedgeDelayMs) {
+    synchronized (this) {
+      this.budget = Math.min(MAX_BUDGET, this.budget + this.budgetRatio);
+    }
+
+    if (hedgeDelayMs < 0) {
+      return call.apply(IGNORE_SENT);
+    }
+
+    Race<T> race = new Race<>();
+    AtomicBoolean sent = new AtomicBoolean();
+    race.tryAdd(() -> call.apply(() -> {
+      // Throttled retries report again, only the first send starts the timer
+      if (!sent.compareAndSet(false, true)) {
+        return;
+      }
+      ScheduledFuture<?> timer = this.scheduler.schedule(() -> {
+        if (!race.result.isDone() && this.tryWithdraw()) {
+          race.tryAdd(() -> call.apply(IGNORE_SENT));
+        }
+      }, hedgeDelayMs, TimeUnit.MILLISECONDS);
+      race.result.whenComplete((result, throwable) -> timer.cancel(false));
+    }));
+    return race.result;
+  }
+
+  private synchronized boolean tryWithdraw() {
+    if (this.budget < 1) {
+      return false;
+    }
+    this.budget--;
+    return true;
+  }
+
+  /**
+   * Attempts of one request racing for the result
+   */
+  private static class Race<T> {
+    private final CompletableFuture<T> result = new CompletableFuture<>();
+    private final List<CompletableFuture<T>> attempts = new ArrayList<>();
+    private Throwable firstError;
+    private int failed;
+
+    private Race() {
+      // Cancelling the result cancels every running attempt
+      this.result.whenComplete((value, throwable) -> {
+        if (throwable instanceof CancellationException) {
+          this.cancelAll();
+        }
+      });
+    }
+
+    private void tryAdd(Supplier<CompletableFuture<T>> call) {
+      CompletableFuture<T> attempt;
+      synchronized (this) {
+        if (this.result.isDone()) {
+          return;
+        }
+        attempt = call.get();
+        this.attempts.add(attempt);
+      }
+      attempt.whenComplete(this::onComplete);
+    }
+
+    private void onComplete(T value, Throwable throwable) {
+      synchronized (this) {
+        if (throwable != null) {
+          if (this.firstError == null) {
+            this.firstError = throwable;
+          }
+          // Wait for the other attempt before reporting the failure
+          if (++this.failed == this.attempts.size()) {
+            this.result.completeExceptionally(this.firstError);
+          }
+          return;
+        }
+
+        if (!this.result.complete(value)) {
+          return;
+        }
+      }
+      this.cancelAll();
+    }
+
+    private void cancelAll() {
+      List<CompletableFuture<T>> running;
+      synchronized (this) {
+        running = new ArrayList<>(this.attempts);
+      }
+      for (CompletableFuture<T> attempt : running) {
+        attempt.cancel(true);
+      }
+    }
+  }
+}
\ No newline at end of file
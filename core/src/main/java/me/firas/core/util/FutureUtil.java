@@ -0,0 +1,105 @@
+package me.firas.core.util;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Utility class for working with CompletableFutures
+ * Dependent stages do not pass a cancellation back to the stage they were derived from,
+ * these helpers forward it so cancelling a translation reaches the HTTP exchange
+ */
+public class FutureUtil {
+
+  /**
+   * Cancels the sources once the dependent future is cancelled
+   *
+   * @param dependent Future handed to the caller
+   * @param sources Futures the dependent one was derived from
+   * @return The dependent future
+   */
+  public static <T> CompletableFuture<T> propagateCancel(CompletableFuture<T> dependent, Future<?>... sources) {
+    dependent.whenComplete((result, throwable) -> {
+      if (dependent.isCancelled()) {
+        for (Future<?> source : sources) {
+          source.cancel(true);
+        }
+      }
+    });
+    return dependent;
+  }
+
+  /**
+   * Like {@link CompletableFuture#thenCompose}, but cancelling the returned future also cancels
+   * the stage the function started, not only the one it was composed on
+   *
+   * @param first Stage whose result is passed to the function
+   * @param next Starts the second stage
+   * @return Future completing with the second stage
+   */
+  public static <T, U> CompletableFuture<U> composeCancellable(CompletableFuture<T> first,
+      Function<? super T, ? extends CompletableFuture<U>> next) {
+    return chainCancellable(first, (value, throwable) -> throwable != null
+        ? CompletableFuture.failedFuture(throwable)
+        : next.apply(value));
+  }
+
+  /**
+   * Like {@link CompletableFuture#exceptionallyCompose}, but cancelling the returned future also
+   * cancels the stage the recovery started. Cancellations are passed on, not recovered from
+   *
+   * @param first Stage whose failure is passed to the recovery
+   * @param recovery Starts the stage that replaces a failed first stage
+   * @return Future completing with the first stage, or the recovery stage if it failed
+   */
+  public static <T> CompletableFuture<T> recoverCancellable(CompletableFuture<T> first,
+      Function<Throwable, ? extends CompletableFuture<T>> recovery) {
+    return chainCancellable(first, (value, throwable) -> {
+      if (throwable == null) {
+        return CompletableFuture.completedFuture(value);
+      }
+      return isCancellation(throwable) ? CompletableFuture.failedFuture(throwable) : recovery.apply(throwable);
+    });
+  }
+
+  private static <T, U> CompletableFuture<U> chainCancellable(CompletableFuture<T> first,
+      BiFunction<? super T, Throwable, ? extends CompletableFuture<U>> next) {
+    CompletableFuture<U> result = propagateCancel(new CompletableFuture<>(), first);
+    first.whenComplete((value, throwable) -> {
+      if (result.isDone()) {
+        return;
+      }
+
+      CompletableFuture<U> second;
+      try {
+        second = next.apply(value, throwable);
+      } catch (Throwable t) {
+        result.completeExceptionally(t);
+        return;
+      }
+      propagateCancel(result, second);
+      second.whenComplete((secondValue, secondThrowable) -> {
+        if (secondThrowable != null) {
+          result.completeExceptionally(secondThrowable);
+        } else {
+          result.complete(secondValue);
+        }
+      });
+    });
+    return result;
+  }
+
+  /**
+   * @return Whether the throwable, or one of its causes, is a cancellation
+   */
+  public static boolean isCancellation(Throwable throwable) {
+    for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+      if (cause instanceof CancellationException) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
\ No newline at end of file
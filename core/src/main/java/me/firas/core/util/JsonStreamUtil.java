@@ -0,0 +1,126 @@
+package me.firas.core.util;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utility class for decoding JSON responses with a streaming reader
+ * Only the requested fields are materialized, everything else is skipped
+ * without building a JSON tree
+ */
+public class JsonStreamUtil {
+
+  /**
+   * Opens a streaming reader over a UTF-8 encoded response body
+   *
+   * @param body The raw response body
+   * @return Reader positioned before the first token
+   */
+  public static JsonReader open(byte[] body) {
+    return open(new ByteArrayInputStream(body));
+  }
+
+  /**
+   * Opens a streaming reader over a UTF-8 encoded stream
+   *
+   * @param stream The stream to read from
+   * @return Reader positioned before the first token
+   */
+  public static JsonReader open(InputStream stream) {
+    return new JsonReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Advances inside the current object until the given field name
+   * Values of all other fields are skipped
+   *
+   * @param reader Reader positioned inside an object
+   * @param name The field name to look for
+   * @return true if the reader is now positioned at the field value
+   * @throws IOException If the input is malformed
+   */
+  public static boolean seekField(JsonReader reader, String name) throws IOException {
+    while (reader.hasNext()) {
+      if (reader.nextName().equals(name)) {
+        return true;
+      }
+      reader.skipValue();
+    }
+    return false;
+  }
+
+  /**
+   * Reads a string value, returning null for JSON null
+   *
+   * @param reader Reader positioned at a string or null value
+   * @return The string, or null
+   * @throws IOException If the input is malformed
+   */
+  public static String nextStringOrNull(JsonReader reader) throws IOException {
+    if (reader.peek() == JsonToken.NULL) {
+      reader.nextNull();
+      return null;
+    }
+    return reader.nextString();
+  }
+
+  /**
+   * Reads one string field from every object of the array at the reader position
+   * e.g. [{"text": "a"}, {"text": "b"}] -> ["a", "b"]
+   *
+   * @param reader Reader positioned at an array of objects
+   * @param name The field to extract from each object
+   * @return Field values in array order, null where the field is missing
+   * @throws IOException If the input is malformed
+   */
+  public static List<String> readFieldOfEach(JsonReader reader, String name) throws IOException {
+    List<String> values = new ArrayList<>();
+    reader.beginArray();
+    while (reader.hasNext()) {
+      reader.beginObject();
+      String value = null;
+      while (reader.hasNext()) {
+        String field = reader.nextName();
+        if (value == null && field.equals(name)) {
+          value = nextStringOrNull(reader);
+        } else {
+          reader.skipValue();
+        }
+      }
+      reader.endObject();
+      values.add(value);
+    }
+    reader.endArray();
+    return values;
+  }
+
+  /**
+   * Reads a value that is either a single string or an array of strings
+   *
+   * @param reader Reader positioned at a string or an array of strings
+   * @return The string values
+   * @throws IOException If the input is malformed
+   */
+  public static List<String> readStringOrArray(JsonReader reader) throws IOException {
+    List<String> values = new ArrayList<>();
+    if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+      values.add(nextStringOrNull(reader));
+      return values;
+    }
+
+    reader.beginArray();
+    while (reader.hasNext()) {
+      values.add(nextStringOrNull(reader));
+    }
+    reader.endArray();
+    return values;
+  }
+}
\ No newline at end of file